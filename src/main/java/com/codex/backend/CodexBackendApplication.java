@@ -1,12 +1,26 @@
 package com.codex.backend;
 
+import com.codex.backend.config.CacheProperties;
 import com.codex.backend.config.JwtProperties;
+import com.codex.backend.config.ListingImportProperties;
+import com.codex.backend.config.PasswordHashingProperties;
+import com.codex.backend.config.StreamProperties;
+import com.codex.backend.config.SyncProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({
+        JwtProperties.class,
+        CacheProperties.class,
+        PasswordHashingProperties.class,
+        SyncProperties.class,
+        StreamProperties.class,
+        ListingImportProperties.class
+})
 public class CodexBackendApplication {
 
     public static void main(String[] args) {
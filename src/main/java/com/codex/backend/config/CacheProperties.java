@@ -0,0 +1,54 @@
+package com.codex.backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 进程内缓存配置：每类缓存都有容量上限与过期时间，避免无界增长。
+ */
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    private final Spec favorites = new Spec(10_000, Duration.ofMinutes(10));
+    private final Spec tokens = new Spec(50_000, Duration.ofMinutes(30));
+    private final Spec principals = new Spec(10_000, Duration.ofMinutes(5));
+
+    public Spec getFavorites() {
+        return favorites;
+    }
+
+    public Spec getTokens() {
+        return tokens;
+    }
+
+    public Spec getPrincipals() {
+        return principals;
+    }
+
+    public static class Spec {
+
+        private long maxSize;
+        private Duration ttl;
+
+        public Spec(long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
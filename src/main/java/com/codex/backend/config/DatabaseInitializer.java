@@ -27,12 +27,15 @@ import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 启动时初始化必要的用户与示例 Listing，方便前端联调。
+ *
+ * <p>同类实体用 saveAll 一起保存，提交时由 Hibernate 按 {@code jdbc.batch_size} 合并为批量 INSERT。
  */
 @Component
 public class DatabaseInitializer {
@@ -108,27 +111,27 @@ public class DatabaseInitializer {
                         5)));
 
         if (listingRepository.count() == 0) {
-            listingRepository.save(new Listing(
-                    "Burton Custom X",
-                    "轻度使用，附送固定器",
-                    ListingCondition.LIKE_NEW,
-                    BigDecimal.valueOf(450.0),
-                    "London",
-                    TradeOption.FACE_TO_FACE,
-                    false,
-                    "https://images.example.com/boards/custom-x.jpg",
-                    admin));
-
-            listingRepository.save(new Listing(
-                    "Jones Mountain Twin",
-                    "保养良好，含原装滑雪包",
-                    ListingCondition.GOOD,
-                    BigDecimal.valueOf(380.0),
-                    "Innsbruck",
-                    TradeOption.COURIER,
-                    false,
-                    "https://images.example.com/boards/mountain-twin.jpg",
-                    admin));
+            listingRepository.saveAll(List.of(
+                    new Listing(
+                            "Burton Custom X",
+                            "轻度使用，附送固定器",
+                            ListingCondition.LIKE_NEW,
+                            BigDecimal.valueOf(450.0),
+                            "London",
+                            TradeOption.FACE_TO_FACE,
+                            false,
+                            "https://images.example.com/boards/custom-x.jpg",
+                            admin),
+                    new Listing(
+                            "Jones Mountain Twin",
+                            "保养良好，含原装滑雪包",
+                            ListingCondition.GOOD,
+                            BigDecimal.valueOf(380.0),
+                            "Innsbruck",
+                            TradeOption.COURIER,
+                            false,
+                            "https://images.example.com/boards/mountain-twin.jpg",
+                            admin)));
         }
 
         if (favoriteRepository.count() == 0) {
@@ -150,8 +153,9 @@ public class DatabaseInitializer {
                                 listing.getSeller(),
                                 buyer,
                                 listing.getTitle()));
-                        messageRepository.save(new Message(thread, buyer, "你好，这块板子还在吗？"));
-                        messageRepository.save(new Message(thread, listing.getSeller(), "在的，刚刚调试过边刃。"));
+                        messageRepository.saveAll(List.of(
+                                new Message(thread, buyer, "你好，这块板子还在吗？"),
+                                new Message(thread, listing.getSeller(), "在的，刚刚调试过边刃。")));
                     });
         }
 
@@ -167,22 +171,17 @@ public class DatabaseInitializer {
                     TripStatus.UPCOMING,
                     admin));
 
-            TripParticipant organizerParticipant = tripParticipantRepository.save(
-                    new TripParticipant(trip, admin, TripParticipantRole.ORGANIZER));
-            trip.getParticipants().add(organizerParticipant);
-
-            TripParticipant member = tripParticipantRepository.save(
-                    new TripParticipant(trip, buyer, TripParticipantRole.MEMBER));
-            trip.getParticipants().add(member);
+            trip.getParticipants().addAll(tripParticipantRepository.saveAll(List.of(
+                    new TripParticipant(trip, admin, TripParticipantRole.ORGANIZER),
+                    new TripParticipant(trip, buyer, TripParticipantRole.MEMBER))));
 
             TripJoinRequest joinRequest = tripJoinRequestRepository.save(
                     new TripJoinRequest(trip, traveler, TripRequestStatus.PENDING, "期待加入一起出发"));
             trip.getJoinRequests().add(joinRequest);
 
-            TripMessage welcome = tripMessageRepository.save(new TripMessage(trip, admin, "欢迎加入，本周五集合！"));
-            trip.getMessages().add(welcome);
-            TripMessage reply = tripMessageRepository.save(new TripMessage(trip, buyer, "收到，已经准备好装备！"));
-            trip.getMessages().add(reply);
+            trip.getMessages().addAll(tripMessageRepository.saveAll(List.of(
+                    new TripMessage(trip, admin, "欢迎加入，本周五集合！"),
+                    new TripMessage(trip, buyer, "收到，已经准备好装备！"))));
         }
     }
 }
@@ -2,10 +2,22 @@ package com.codex.backend.config;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
+/**
+ * JSON 与二进制格式共用同一套 Jackson 配置。
+ *
+ * <p>客户端通过 {@code Accept: application/cbor} 或 {@code application/x-jackson-smile} 选择二进制编码，
+ * 字段名、日期格式与 JSON 完全一致；未声明时仍返回 JSON。这里声明的转换器会替换 Spring MVC 按 classpath
+ * 默认注册的同类转换器并保持其位置（排在 JSON 之后），默认那一份不会带上下面的 SNAKE_CASE 等定制。
+ */
 @Configuration
 public class JacksonConfig {
 
@@ -15,4 +27,17 @@ public class JacksonConfig {
                 .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
                 .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
+
+    /**
+     * builder 是原型作用域，每次注入都是已应用上面定制的新实例。
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
 }
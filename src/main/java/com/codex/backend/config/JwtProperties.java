@@ -9,6 +9,8 @@ public class JwtProperties {
     private String issuer;
     private String secret;
     private String expiration;
+    private String refreshExpiration = "P30D";
+    private boolean embedUserSnapshot;
 
     public String getIssuer() {
         return issuer;
@@ -33,4 +35,20 @@ public class JwtProperties {
     public void setExpiration(String expiration) {
         this.expiration = expiration;
     }
+
+    public String getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    public void setRefreshExpiration(String refreshExpiration) {
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public boolean isEmbedUserSnapshot() {
+        return embedUserSnapshot;
+    }
+
+    public void setEmbedUserSnapshot(boolean embedUserSnapshot) {
+        this.embedUserSnapshot = embedUserSnapshot;
+    }
 }
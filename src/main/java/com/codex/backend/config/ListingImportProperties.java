@@ -0,0 +1,39 @@
+package com.codex.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 批量导入配置：每个事务写入的行数（宜为 JDBC batch_size 的整数倍）、响应中最多列出的错误数，
+ * 以及单条 CSV 记录允许的最大字符数。
+ */
+@ConfigurationProperties(prefix = "listing-import")
+public class ListingImportProperties {
+
+    private int batchSize = 500;
+    private int maxReportedErrors = 100;
+    private int maxRecordLength = 16_384;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public int getMaxRecordLength() {
+        return maxRecordLength;
+    }
+
+    public void setMaxRecordLength(int maxRecordLength) {
+        this.maxRecordLength = maxRecordLength;
+    }
+}
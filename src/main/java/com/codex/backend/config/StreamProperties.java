@@ -0,0 +1,85 @@
+package com.codex.backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实时推送配置：每个连接的待发送缓冲上限、单用户连接数上限、连接超时、心跳间隔、判定慢连接的单次写耗时，
+ * 以及发送线程池的常驻线程数与上限；开启 virtualThreads 时（Java 21）每次排空改用虚拟线程，线程数配置不再生效。
+ */
+@ConfigurationProperties(prefix = "stream")
+public class StreamProperties {
+
+    private int bufferSize = 64;
+    private int maxConnectionsPerUser = 4;
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeat = Duration.ofSeconds(25);
+    private Duration slowSendThreshold = Duration.ofMillis(250);
+    private int senderThreads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private int maxSenderThreads = 512;
+    private boolean virtualThreads;
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxConnectionsPerUser() {
+        return maxConnectionsPerUser;
+    }
+
+    public void setMaxConnectionsPerUser(int maxConnectionsPerUser) {
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public Duration getSlowSendThreshold() {
+        return slowSendThreshold;
+    }
+
+    public void setSlowSendThreshold(Duration slowSendThreshold) {
+        this.slowSendThreshold = slowSendThreshold;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public int getMaxSenderThreads() {
+        return maxSenderThreads;
+    }
+
+    public void setMaxSenderThreads(int maxSenderThreads) {
+        this.maxSenderThreads = maxSenderThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,39 @@
+package com.codex.backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 增量同步配置：变更日志保留时长、被覆盖的旧变更多久后合并，以及压缩任务的执行间隔。
+ */
+@ConfigurationProperties(prefix = "sync")
+public class SyncProperties {
+
+    private Duration retention = Duration.ofDays(30);
+    private Duration compactAfter = Duration.ofHours(1);
+    private Duration compactionInterval = Duration.ofHours(1);
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getCompactAfter() {
+        return compactAfter;
+    }
+
+    public void setCompactAfter(Duration compactAfter) {
+        this.compactAfter = compactAfter;
+    }
+
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(Duration compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+}
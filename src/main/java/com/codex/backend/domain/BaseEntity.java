@@ -1,8 +1,6 @@
 package com.codex.backend.domain;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
@@ -12,12 +10,15 @@ import java.util.UUID;
 
 /**
  * 所有实体的基础字段，统一包含 UUID 主键以及创建/更新时间戳。
+ *
+ * <p>主键为按时间递增的 UUIDv7（见 {@link UuidV7Generator}），MySQL 上映射为 BINARY(16)；
+ * 早期生成的随机 v4 主键保持不变，两者可以共存。
  */
 @MappedSuperclass
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, updatable = false)
@@ -56,4 +57,12 @@ public abstract class BaseEntity {
     protected void markUpdated() {
         this.updatedAt = Instant.now();
     }
+
+    /**
+     * 为不经过持久化上下文构造的只读副本回填主键与更新时间。
+     */
+    protected void restoreIdentity(UUID id, Instant updatedAt) {
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
 }
@@ -6,6 +6,7 @@ import com.codex.backend.domain.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,7 +16,13 @@ import jakarta.persistence.UniqueConstraint;
  * 收藏实体：关联用户与 Listing，标记其已收藏。
  */
 @Entity
-@Table(name = "favorites", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "listing_id"}))
+@Table(
+        name = "favorites",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "listing_id"}),
+        // 带上 listing_id，收藏 ID 缓存回源只读索引。
+        indexes = @Index(
+                name = "idx_favorites_user_archived_created",
+                columnList = "user_id, archived, created_at, listing_id"))
 public class Favorite extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
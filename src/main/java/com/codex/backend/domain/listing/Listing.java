@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -16,7 +17,17 @@ import java.math.BigDecimal;
  * Listing 实体：对应前端的雪板发布信息。
  */
 @Entity
-@Table(name = "listings")
+@Table(
+        name = "listings",
+        indexes = {
+            // 键集分页按 (created_at, id) 倒序扫描，筛选条件各自带上排序列，保证每页成本与总量无关。
+            @Index(name = "idx_listings_created_id", columnList = "created_at, id"),
+            // 列表 ETag 取 max(updated_at)，有索引时只需读索引一端。
+            @Index(name = "idx_listings_updated_at", columnList = "updated_at"),
+            @Index(name = "idx_listings_condition_created_id", columnList = "condition, created_at, id"),
+            @Index(name = "idx_listings_trade_option_created_id", columnList = "trade_option, created_at, id"),
+            @Index(name = "idx_listings_location_created_id", columnList = "location, created_at, id")
+        })
 public class Listing extends BaseEntity {
 
     @Column(nullable = false, length = 150)
@@ -49,6 +60,10 @@ public class Listing extends BaseEntity {
     @JoinColumn(name = "seller_id", nullable = false)
     private User seller;
 
+    private Double latitude;
+
+    private Double longitude;
+
     protected Listing() {
         // JPA only
     }
@@ -109,4 +124,20 @@ public class Listing extends BaseEntity {
     public User getSeller() {
         return seller;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * 设置可选的经纬度，供“附近”查询使用；两者需同时提供或同时为空。
+     */
+    public void setCoordinates(Double latitude, Double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
 }
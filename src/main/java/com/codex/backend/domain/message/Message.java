@@ -5,6 +5,7 @@ import com.codex.backend.domain.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,7 +15,10 @@ import java.time.Instant;
  * 站内信消息：包含发送者、内容与时间。
  */
 @Entity
-@Table(name = "messages")
+@Table(
+        name = "messages",
+        // 会话内按时间窗口翻页，(thread_id, created_at, id) 同时服务于最后一条消息的定位。
+        indexes = @Index(name = "idx_messages_thread_created_id", columnList = "thread_id, created_at, id"))
 public class Message extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
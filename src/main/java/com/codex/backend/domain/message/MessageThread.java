@@ -6,22 +6,34 @@ import com.codex.backend.domain.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * 站内信会话：绑定某条 Listing 以及买家/卖家双方。
+ *
+ * <p>已读时间由批量更新单独写入；{@code @DynamicUpdate} 让发消息时的 UPDATE 只包含改动的列，
+ * 不会把加载时读到的旧已读时间写回，覆盖对方并发推进的已读标记。
  */
 @Entity
+@DynamicUpdate
 @Table(
         name = "message_threads",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"listing_id", "buyer_id", "seller_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"listing_id", "buyer_id", "seller_id"}),
+        indexes = {
+            // 会话列表按买家、卖家两侧分别查询，各自按 updated_at 倒序。
+            @Index(name = "idx_message_threads_buyer_updated", columnList = "buyer_id, updated_at"),
+            @Index(name = "idx_message_threads_seller_updated", columnList = "seller_id, updated_at")
+        })
 public class MessageThread extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -42,6 +54,12 @@ public class MessageThread extends BaseEntity {
     @Column(nullable = false)
     private boolean archived;
 
+    /** 买家最后一次查看会话的时间，用于计算未读数。 */
+    private Instant buyerLastReadAt;
+
+    /** 卖家最后一次查看会话的时间，用于计算未读数。 */
+    private Instant sellerLastReadAt;
+
     @OneToMany(mappedBy = "thread")
     @OrderBy("createdAt ASC")
     private List<Message> messages = new ArrayList<>();
@@ -82,6 +100,14 @@ public class MessageThread extends BaseEntity {
         this.archived = archived;
     }
 
+    public Instant getBuyerLastReadAt() {
+        return buyerLastReadAt;
+    }
+
+    public Instant getSellerLastReadAt() {
+        return sellerLastReadAt;
+    }
+
     public List<Message> getMessages() {
         return messages;
     }
@@ -0,0 +1,113 @@
+package com.codex.backend.domain.sync;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 变更日志的一行：seq 单调递增，作为客户端的同步水位。
+ *
+ * <p>seq 由 {@code ChangeLog} 在提交前按块分配后赋值，不依赖自增列，INSERT 可以走 JDBC 批量；
+ * 日志只追加不修改，实现 {@link Persistable} 让保存直接 persist，不先按主键查询。
+ *
+ * <p>audienceId 为空表示所有用户可见（Listing、行程）；收藏与会话只记给相关用户。
+ * 收藏以 Listing ID 作为 entityId，与客户端按 Listing 维护收藏状态一致。
+ */
+@Entity
+@Table(
+        name = "change_log",
+        indexes = {
+                @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id"),
+                @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+        })
+public class ChangeLogEntry implements Persistable<Long> {
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "audience_id")
+    private UUID audienceId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Transient
+    private boolean persisted;
+
+    protected ChangeLogEntry() {
+        // JPA only
+    }
+
+    public ChangeLogEntry(
+            SyncEntityType entityType, UUID entityId, UUID audienceId, boolean deleted, Instant changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.audienceId = audienceId;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void assignSeq(long seq) {
+        this.seq = seq;
+    }
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public SyncEntityType getEntityType() {
+        return entityType;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public UUID getAudienceId() {
+        return audienceId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.codex.backend.domain.sync;
+
+/**
+ * 增量同步覆盖的集合类型。
+ */
+public enum SyncEntityType {
+    LISTING,
+    FAVORITE,
+    THREAD,
+    TRIP
+}
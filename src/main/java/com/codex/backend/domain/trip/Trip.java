@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -20,7 +21,13 @@ import java.util.List;
  * 行程实体：用于展示前端行程列表与详情。
  */
 @Entity
-@Table(name = "trips")
+@Table(
+        name = "trips",
+        indexes = {
+            // 时间轴按 (start_at, id) 升序翻页；目的地筛选同样带上排序列。
+            @Index(name = "idx_trips_start_at_id", columnList = "start_at, id"),
+            @Index(name = "idx_trips_destination_start_at", columnList = "destination, start_at, id")
+        })
 public class Trip extends BaseEntity {
 
     @Column(nullable = false, length = 150)
@@ -120,4 +127,11 @@ public class Trip extends BaseEntity {
     public List<TripMessage> getMessages() {
         return messages;
     }
+
+    /**
+     * 成员、报名或群聊变化时刷新 `updated_at`，行程列表的 ETag 依赖它判断内容是否变化。
+     */
+    public void touch() {
+        markUpdated();
+    }
 }
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,7 +16,12 @@ import jakarta.persistence.Table;
  * 行程报名请求。
  */
 @Entity
-@Table(name = "trip_join_requests")
+@Table(
+        name = "trip_join_requests",
+        indexes = {
+            @Index(name = "idx_trip_join_requests_trip_applicant", columnList = "trip_id, applicant_id"),
+            @Index(name = "idx_trip_join_requests_trip_status_created", columnList = "trip_id, status, created_at")
+        })
 public class TripJoinRequest extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
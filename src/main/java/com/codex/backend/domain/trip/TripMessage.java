@@ -5,6 +5,7 @@ import com.codex.backend.domain.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,7 +15,9 @@ import java.time.Instant;
  * 行程群聊消息。
  */
 @Entity
-@Table(name = "trip_messages")
+@Table(
+        name = "trip_messages",
+        indexes = @Index(name = "idx_trip_messages_trip_created_id", columnList = "trip_id, created_at, id"))
 public class TripMessage extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
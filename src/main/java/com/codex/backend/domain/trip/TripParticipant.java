@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,7 +15,12 @@ import jakarta.persistence.Table;
  * 行程成员，含组织者与普通参与者。
  */
 @Entity
-@Table(name = "trip_participants")
+@Table(
+        name = "trip_participants",
+        indexes = {
+            @Index(name = "idx_trip_participants_trip_user", columnList = "trip_id, user_id"),
+            @Index(name = "idx_trip_participants_user_trip", columnList = "user_id, trip_id")
+        })
 public class TripParticipant extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
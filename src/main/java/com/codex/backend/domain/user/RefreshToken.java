@@ -0,0 +1,82 @@
+package com.codex.backend.domain.user;
+
+import com.codex.backend.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 刷新令牌：只保存令牌的 HMAC 摘要。同一次登录轮换出的令牌共享 familyId，
+ * 已轮换的令牌再次出现时整组作废。
+ */
+@Entity
+@Table(
+        name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_revoked", columnList = "family_id, revoked_at"),
+                @Index(name = "idx_refresh_tokens_user_expires", columnList = "user_id, expires_at")
+        })
+public class RefreshToken extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private Instant usedAt;
+
+    private Instant revokedAt;
+
+    protected RefreshToken() {
+        // JPA only
+    }
+
+    public RefreshToken(User user, String tokenHash, UUID familyId, Instant expiresAt) {
+        this.user = user;
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void markUsed(Instant when) {
+        this.usedAt = when;
+    }
+}
@@ -3,13 +3,16 @@ package com.codex.backend.domain.user;
 import com.codex.backend.domain.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * 用户实体：保存账号、基础资料与交易统计信息。
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_updated_at", columnList = "updated_at"))
 public class User extends BaseEntity {
 
     @Column(nullable = false, unique = true, length = 191)
@@ -33,6 +36,10 @@ public class User extends BaseEntity {
     @Column(nullable = false)
     private int dealsCount;
 
+    private Double latitude;
+
+    private Double longitude;
+
     protected User() {
         // JPA only
     }
@@ -58,6 +65,26 @@ public class User extends BaseEntity {
         this.dealsCount = dealsCount;
     }
 
+    /**
+     * 由令牌中的资料快照还原的只读用户，仅用作鉴权主体与关联引用，不能保存或合并。
+     */
+    public static User fromSnapshot(
+            UUID id,
+            String email,
+            String displayName,
+            String location,
+            double rating,
+            int dealsCount,
+            Double latitude,
+            Double longitude,
+            Instant updatedAt) {
+        User user = new User(email, null, displayName, location, null, rating, dealsCount);
+        user.latitude = latitude;
+        user.longitude = longitude;
+        user.restoreIdentity(id, updatedAt);
+        return user;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -86,6 +113,23 @@ public class User extends BaseEntity {
         return dealsCount;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void updateCoordinates(Double latitude, Double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public void changePasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
     public void updateProfile(String displayName, String location, String bio, double rating, int dealsCount) {
         this.displayName = displayName;
         this.location = location;
@@ -0,0 +1,71 @@
+package com.codex.backend.repository;
+
+import com.codex.backend.domain.sync.ChangeLogEntry;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * 水位与 head 之间当前用户可见的变更，按 seq 升序，走主键范围扫描。
+     */
+    @Query("""
+            select e from ChangeLogEntry e
+            where e.seq > :since and e.seq <= :head and (e.audienceId is null or e.audienceId = :userId)
+            order by e.seq
+            """)
+    List<ChangeLogEntry> findVisibleAfter(
+            @Param("since") long since,
+            @Param("head") long head,
+            @Param("userId") UUID userId,
+            Pageable pageable);
+
+    @Query("select min(e.seq) from ChangeLogEntry e")
+    Long findFloor();
+
+    @Query("select max(e.seq) from ChangeLogEntry e")
+    Long findHead();
+
+    /**
+     * 在计数行上预留 count 个 seq；行锁持有到事务结束，后预留的事务只能在前一个提交或回滚之后拿到更大的 seq。
+     */
+    @Modifying
+    @Query(value = "update change_log_seq set last_seq = last_seq + :count where id = 1", nativeQuery = true)
+    int reserveSeqs(@Param("count") int count);
+
+    @Query(value = "select last_seq from change_log_seq where id = 1", nativeQuery = true)
+    long findLastReservedSeq();
+
+    @Query("select max(e.seq) from ChangeLogEntry e where e.changedAt < :cutoff")
+    Long findLastBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.seq < :seq")
+    int deleteBefore(@Param("seq") long seq);
+
+    /**
+     * 已被同一对象更新的变更覆盖的旧行；floor 本身作为截断标记保留。
+     */
+    @Query("""
+            select e.seq from ChangeLogEntry e
+            where e.changedAt < :cutoff and e.seq > :floor
+              and exists (
+                select n.seq from ChangeLogEntry n
+                where n.entityType = e.entityType and n.entityId = e.entityId
+                  and (n.audienceId = e.audienceId or (n.audienceId is null and e.audienceId is null))
+                  and n.seq > e.seq)
+            order by e.seq
+            """)
+    List<Long> findSuperseded(@Param("cutoff") Instant cutoff, @Param("floor") long floor, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.seq in :seqs")
+    int deleteBySeqIn(@Param("seqs") Collection<Long> seqs);
+}
@@ -3,17 +3,48 @@ package com.codex.backend.repository;
 import com.codex.backend.domain.favorite.Favorite;
 import com.codex.backend.domain.listing.Listing;
 import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.projection.CollectionVersion;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 收藏仓储：查询与增删用户收藏关系。
  */
 public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
 
+    @EntityGraph(attributePaths = {"listing", "listing.seller"})
     List<Favorite> findByUserAndArchivedFalseOrderByCreatedAtDesc(User user);
 
     Optional<Favorite> findByUserAndListing(User user, Listing listing);
+
+    /**
+     * 只取用户收藏的 Listing ID，不加载 Listing 实体，供收藏缓存回源。
+     */
+    @Query("select f.listing.id from Favorite f where f.user.id = :userId and f.archived = false")
+    List<UUID> findActiveListingIdsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * 按 Listing ID 批量加载当前用户的有效收藏，供增量同步回表。
+     */
+    @EntityGraph(attributePaths = {"listing", "listing.seller"})
+    @Query("select f from Favorite f where f.user = :user and f.listing.id in :listingIds and f.archived = false")
+    List<Favorite> findActiveByUserAndListingIds(
+            @Param("user") User user, @Param("listingIds") Collection<UUID> listingIds);
+
+    /**
+     * 收藏集合版本：relatedLastModified 取所收藏 Listing 及其卖家资料的最近更新时间。
+     */
+    @Query("""
+            select new com.codex.backend.repository.projection.CollectionVersion(
+                count(f), max(f.updatedAt), greatest(max(l.updatedAt), max(s.updatedAt)))
+            from Favorite f join f.listing l join l.seller s
+            where f.user = :user and f.archived = false
+            """)
+    CollectionVersion findVersionByUser(@Param("user") User user);
 }
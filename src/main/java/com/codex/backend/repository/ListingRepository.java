@@ -1,11 +1,116 @@
 package com.codex.backend.repository;
 
 import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.repository.projection.CollectionVersion;
+import com.codex.backend.repository.projection.ListingGeoView;
+import com.codex.backend.repository.projection.ListingSearchView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Listing 持久层接口，负责雪板发布的增删改查。
  */
 public interface ListingRepository extends JpaRepository<Listing, UUID> {
+
+    /**
+     * 全量列表同时 join 卖家，避免逐条加载 seller。
+     */
+    @EntityGraph(attributePaths = "seller")
+    List<Listing> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * 全量列表的流式版本：只读加载、按 fetch size 分批从游标取行，需在事务内消费并关闭。
+     */
+    @EntityGraph(attributePaths = "seller")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamAllByOrderByCreatedAtDesc();
+
+    /**
+     * 加锁读取 Listing 行，用于让同一 Listing 上需要互斥的写操作排队。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Listing l where l.id = :id")
+    Optional<Listing> findForUpdate(@Param("id") UUID id);
+
+    /**
+     * Listing 全量列表的版本：卖家资料随 Listing 一并返回，relatedLastModified 取卖家的最近更新时间。
+     */
+    @Query("""
+            select new com.codex.backend.repository.projection.CollectionVersion(
+                count(l), max(l.updatedAt), max(s.updatedAt))
+            from Listing l join l.seller s
+            """)
+    CollectionVersion findVersion();
+
+    /**
+     * 按 ID 批量加载并 join 卖家，供搜索结果回表。
+     */
+    @EntityGraph(attributePaths = "seller")
+    List<Listing> findByIdIn(Collection<UUID> ids);
+
+    /**
+     * 只取建立搜索索引需要的文本字段。
+     */
+    @Query("""
+            select new com.codex.backend.repository.projection.ListingSearchView(
+                l.id, l.title, l.description, l.location, l.createdAt)
+            from Listing l
+            """)
+    List<ListingSearchView> findAllSearchViews();
+
+    /**
+     * 只取带坐标 Listing 的 ID 与经纬度，用于构建空间索引。
+     */
+    @Query("""
+            select new com.codex.backend.repository.projection.ListingGeoView(l.id, l.latitude, l.longitude)
+            from Listing l
+            where l.latitude is not null and l.longitude is not null
+            """)
+    List<ListingGeoView> findAllGeoViews();
+
+    /**
+     * 按 (created_at, id) 倒序的键集分页查询，游标为空时从最新一条开始。
+     */
+    @EntityGraph(attributePaths = "seller")
+    @Query("""
+            select l from Listing l
+            where (:condition is null or l.condition = :condition)
+              and (:tradeOption is null or l.tradeOption = :tradeOption)
+              and (:minPrice is null or l.price >= :minPrice)
+              and (:maxPrice is null or l.price <= :maxPrice)
+              and (:location is null or l.location = :location)
+              and (:cursorCreatedAt is null
+                   or l.createdAt < :cursorCreatedAt
+                   or (l.createdAt = :cursorCreatedAt and l.id < :cursorId))
+            order by l.createdAt desc, l.id desc
+            """)
+    List<Listing> findFeedPage(
+            @Param("condition") ListingCondition condition,
+            @Param("tradeOption") TradeOption tradeOption,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("location") String location,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
+            @Param("cursorId") UUID cursorId,
+            Pageable pageable);
 }
@@ -1,10 +1,55 @@
 package com.codex.backend.repository;
 
 import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 站内信消息仓储。
  */
-public interface MessageRepository extends JpaRepository<Message, UUID> {}
+public interface MessageRepository extends JpaRepository<Message, UUID> {
+
+    /**
+     * 取游标之前（不含）的一页消息，按时间倒序；游标为空时从最新一条开始。
+     */
+    @Query("""
+            select m from Message m
+            where m.thread = :thread
+              and (:beforeCreatedAt is null
+                   or m.createdAt < :beforeCreatedAt
+                   or (m.createdAt = :beforeCreatedAt and m.id < :beforeId))
+            order by m.createdAt desc, m.id desc
+            """)
+    List<Message> findWindowBefore(
+            @Param("thread") MessageThread thread,
+            @Param("beforeCreatedAt") Instant beforeCreatedAt,
+            @Param("beforeId") UUID beforeId,
+            Pageable pageable);
+
+    /**
+     * 取游标之后（不含）的一页消息，按时间正序，供客户端增量拉取新消息。
+     */
+    @Query("""
+            select m from Message m
+            where m.thread = :thread
+              and (m.createdAt > :afterCreatedAt or (m.createdAt = :afterCreatedAt and m.id > :afterId))
+            order by m.createdAt asc, m.id asc
+            """)
+    List<Message> findWindowAfter(
+            @Param("thread") MessageThread thread,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * 会话中最新一条消息的时间，走 (thread_id, created_at, id) 索引。
+     */
+    @Query("select max(m.createdAt) from Message m where m.thread = :thread")
+    Instant findLatestCreatedAt(@Param("thread") MessageThread thread);
+}
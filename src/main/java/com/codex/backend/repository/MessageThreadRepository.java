@@ -1,18 +1,271 @@
 package com.codex.backend.repository;
 
+import com.codex.backend.domain.listing.Listing;
 import com.codex.backend.domain.message.MessageThread;
 import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.projection.CollectionVersion;
+import com.codex.backend.repository.projection.ThreadKey;
+import com.codex.backend.repository.projection.ThreadSummaryView;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 会话仓储：按参与者查询站内信线程。
  */
 public interface MessageThreadRepository extends JpaRepository<MessageThread, UUID> {
 
-    List<MessageThread> findByBuyerOrSellerOrderByUpdatedAtDesc(User buyer, User seller);
+    /**
+     * 会话列表一次性带出 Listing、卖家、买家与消息，响应组装期间不再触发懒加载。
+     *
+     * <p>买家、卖家两侧分别查询后按 updated_at 归并：跨两列的 OR 条件无法稳定走索引，
+     * 拆开后各自命中 (buyer_id, updated_at)、(seller_id, updated_at)。
+     */
+    default List<MessageThread> findByParticipantOrderByUpdatedAtDesc(User user) {
+        return mergeNewestFirst(
+                findByBuyerOrderByUpdatedAtDesc(user),
+                findBySellerOrderByUpdatedAtDesc(user),
+                MessageThread::getId,
+                MessageThread::getUpdatedAt);
+    }
 
-    Optional<MessageThread> findByIdAndBuyerOrSeller(UUID id, User buyer, User seller);
+    @EntityGraph(attributePaths = {"listing", "listing.seller", "buyer", "seller", "messages"})
+    List<MessageThread> findByBuyerOrderByUpdatedAtDesc(User buyer);
+
+    @EntityGraph(attributePaths = {"listing", "listing.seller", "buyer", "seller", "messages"})
+    List<MessageThread> findBySellerOrderByUpdatedAtDesc(User seller);
+
+    /**
+     * 会话列表的流式版本：两侧只取主键与排序键，按 updated_at 边读边归并，完整会话由调用方分块回表。
+     */
+    default Stream<ThreadKey> streamKeysByParticipant(User user) {
+        return mergeNewestFirst(streamKeysByBuyer(user), streamKeysBySeller(user));
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.codex.backend.repository.projection.ThreadKey(t.id, t.updatedAt)
+            from MessageThread t
+            where t.buyer = :user
+            order by t.updatedAt desc
+            """)
+    Stream<ThreadKey> streamKeysByBuyer(@Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.codex.backend.repository.projection.ThreadKey(t.id, t.updatedAt)
+            from MessageThread t
+            where t.seller = :user
+            order by t.updatedAt desc
+            """)
+    Stream<ThreadKey> streamKeysBySeller(@Param("user") User user);
+
+    /**
+     * 按主键查找当前用户参与的会话。
+     */
+    @Query("select t from MessageThread t where t.id = :id and (t.buyer = :user or t.seller = :user)")
+    Optional<MessageThread> findByIdAndParticipant(@Param("id") UUID id, @Param("user") User user);
+
+    /**
+     * 批量加载当前用户参与的会话，供增量同步回表。
+     */
+    @EntityGraph(attributePaths = {"listing", "listing.seller", "buyer", "seller", "messages"})
+    @Query("select t from MessageThread t where t.id in :ids and (t.buyer = :user or t.seller = :user)")
+    List<MessageThread> findByIdInAndParticipant(@Param("ids") Collection<UUID> ids, @Param("user") User user);
+
+    /**
+     * 命中 (listing_id, buyer_id, seller_id) 唯一约束的直接查找。
+     */
+    Optional<MessageThread> findByListingAndBuyerAndSeller(Listing listing, User buyer, User seller);
+
+    /**
+     * 与上面相同的唯一键查找，但使用加锁读：可以看到其他事务刚提交的会话，
+     * 不受 REPEATABLE READ 快照影响，并在本事务内锁定该行以便随后更新。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from MessageThread t where t.listing = :listing and t.buyer = :buyer and t.seller = :seller")
+    Optional<MessageThread> findForUpdate(
+            @Param("listing") Listing listing, @Param("buyer") User buyer, @Param("seller") User seller);
+
+    /**
+     * 收件箱摘要：一条查询返回当前用户作为买家、卖家两侧的会话，按 updated_at 倒序。
+     *
+     * <p>HQL 的 union 分支不支持 {@code select new}，查询按列返回，再在这里还原为投影。
+     * 两侧用 union all 拼接而不是 {@code buyer_id = ? or seller_id = ?}：跨两列的 OR 无法稳定走索引，
+     * 拆成两个分支后分别命中 (buyer_id, updated_at)、(seller_id, updated_at)。条件用 {@code fk()} 直接比较会话
+     * 自身的外键列，否则 Hibernate 会改写成 join 出来的 users 主键，驱动表变成 users 而扫描整张会话表。
+     * 卖家分支排除买家也是自己的会话（业务上不允许），两侧不会重复。
+     *
+     * <p>最后一条消息通过相关子查询定位，与分页游标一样按 (created_at, id) 取最大的一条，同一时间戳的多条消息
+     * 不会让会话重复出现；未读数统计对方在已读时间之后发送的消息。
+     */
+    default List<ThreadSummaryView> findSummariesByParticipant(User user) {
+        return findSummaryRowsByParticipant(user.getId()).stream()
+                .map(MessageThreadRepository::toSummaryView)
+                .toList();
+    }
+
+    @Query("""
+            select
+                t.id, t.archived, t.updatedAt,
+                l.id, l.title, l.imageUrl,
+                b.id, b.displayName, b.rating, b.dealsCount,
+                s.id, s.displayName, s.rating, s.dealsCount,
+                m.id, m.sender.id, m.content, m.createdAt,
+                (select count(u) from Message u
+                 where u.thread = t and fk(u.sender) <> :userId
+                   and (t.buyerLastReadAt is null or u.createdAt > t.buyerLastReadAt))
+            from MessageThread t
+            join t.listing l
+            join User b on b.id = fk(t.buyer)
+            join User s on s.id = fk(t.seller)
+            left join Message m on m.thread = t
+                and m.createdAt = (select max(m2.createdAt) from Message m2 where m2.thread = t)
+                and m.id = (select max(m3.id) from Message m3 where m3.thread = t and m3.createdAt = m.createdAt)
+            where fk(t.buyer) = :userId
+            union all
+            select
+                t.id, t.archived, t.updatedAt,
+                l.id, l.title, l.imageUrl,
+                b.id, b.displayName, b.rating, b.dealsCount,
+                s.id, s.displayName, s.rating, s.dealsCount,
+                m.id, m.sender.id, m.content, m.createdAt,
+                (select count(u) from Message u
+                 where u.thread = t and fk(u.sender) <> :userId
+                   and (t.sellerLastReadAt is null or u.createdAt > t.sellerLastReadAt))
+            from MessageThread t
+            join t.listing l
+            join User b on b.id = fk(t.buyer)
+            join User s on s.id = fk(t.seller)
+            left join Message m on m.thread = t
+                and m.createdAt = (select max(m2.createdAt) from Message m2 where m2.thread = t)
+                and m.id = (select max(m3.id) from Message m3 where m3.thread = t and m3.createdAt = m.createdAt)
+            where fk(t.seller) = :userId and fk(t.buyer) <> :userId
+            order by 3 desc
+            """)
+    List<Object[]> findSummaryRowsByParticipant(@Param("userId") UUID userId);
+
+    /**
+     * 按 select 列的顺序还原摘要投影。
+     */
+    private static ThreadSummaryView toSummaryView(Object[] row) {
+        return new ThreadSummaryView(
+                (UUID) row[0], (Boolean) row[1], (Instant) row[2],
+                (UUID) row[3], (String) row[4], (String) row[5],
+                (UUID) row[6], (String) row[7], (Double) row[8], (Integer) row[9],
+                (UUID) row[10], (String) row[11], (Double) row[12], (Integer) row[13],
+                (UUID) row[14], (UUID) row[15], (String) row[16], (Instant) row[17],
+                (Long) row[18]);
+    }
+
+    /**
+     * 已读标记走批量更新，不触发 @PreUpdate，避免查看会话改变收件箱排序。
+     */
+    @Modifying
+    @Query("update MessageThread t set t.buyerLastReadAt = :readAt where t.id = :threadId")
+    int markReadByBuyer(@Param("threadId") UUID threadId, @Param("readAt") Instant readAt);
+
+    @Modifying
+    @Query("update MessageThread t set t.sellerLastReadAt = :readAt where t.id = :threadId")
+    int markReadBySeller(@Param("threadId") UUID threadId, @Param("readAt") Instant readAt);
+
+    /**
+     * 会话集合版本：新消息会刷新会话的 updated_at，Listing 与买卖双方资料的变化由 relatedLastModified 体现。
+     */
+    default CollectionVersion findVersionByParticipant(User user) {
+        return findVersionByBuyer(user).combine(findVersionBySeller(user));
+    }
+
+    @Query("""
+            select new com.codex.backend.repository.projection.CollectionVersion(
+                count(t), max(t.updatedAt), greatest(max(l.updatedAt), max(b.updatedAt), max(s.updatedAt)))
+            from MessageThread t join t.listing l join t.buyer b join t.seller s
+            where t.buyer = :user
+            """)
+    CollectionVersion findVersionByBuyer(@Param("user") User user);
+
+    @Query("""
+            select new com.codex.backend.repository.projection.CollectionVersion(
+                count(t), max(t.updatedAt), greatest(max(l.updatedAt), max(b.updatedAt), max(s.updatedAt)))
+            from MessageThread t join t.listing l join t.buyer b join t.seller s
+            where t.seller = :user
+            """)
+    CollectionVersion findVersionBySeller(@Param("user") User user);
+
+    /**
+     * 归并两侧已按 updated_at 倒序的结果；同一会话（自己与自己的会话）只保留一次。
+     */
+    private static <T> List<T> mergeNewestFirst(
+            List<T> first, List<T> second, Function<T, UUID> id, Function<T, Instant> updatedAt) {
+        Map<UUID, T> merged = new LinkedHashMap<>();
+        first.forEach(row -> merged.putIfAbsent(id.apply(row), row));
+        second.forEach(row -> merged.putIfAbsent(id.apply(row), row));
+        List<T> rows = new ArrayList<>(merged.values());
+        rows.sort(Comparator.comparing(updatedAt).reversed());
+        return rows;
+    }
+
+    /**
+     * {@link #mergeNewestFirst(List, List, Function, Function)} 的惰性版本：每次只比较两侧当前行，
+     * 关闭返回的流时一并关闭两侧的查询流。
+     */
+    private static Stream<ThreadKey> mergeNewestFirst(Stream<ThreadKey> first, Stream<ThreadKey> second) {
+        Iterator<ThreadKey> left = first.iterator();
+        Iterator<ThreadKey> right = second.iterator();
+        Iterator<ThreadKey> merged = new Iterator<>() {
+            private ThreadKey nextLeft = left.hasNext() ? left.next() : null;
+            private ThreadKey nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public ThreadKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ThreadKey result;
+                if (nextRight == null
+                        || (nextLeft != null && !nextLeft.updatedAt().isBefore(nextRight.updatedAt()))) {
+                    result = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                    if (nextRight != null && nextRight.id().equals(result.id())) {
+                        nextRight = right.hasNext() ? right.next() : null;
+                    }
+                } else {
+                    result = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
 }
@@ -0,0 +1,40 @@
+package com.codex.backend.repository;
+
+import com.codex.backend.domain.user.RefreshToken;
+import com.codex.backend.domain.user.User;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * 刷新令牌仓储：按摘要查找、整组作废与清理过期记录。
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * 加行锁读取，保证同一令牌并发刷新时只有一个请求能完成轮换。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "user")
+    @Query("select t from RefreshToken t where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findForRotation(@Param("tokenHash") String tokenHash);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    boolean existsByFamilyIdAndRevokedAtIsNotNull(UUID familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user and t.expiresAt < :now")
+    int deleteExpired(@Param("user") User user, @Param("now") Instant now);
+}
@@ -2,9 +2,13 @@ package com.codex.backend.repository;
 
 import com.codex.backend.domain.trip.Trip;
 import com.codex.backend.domain.trip.TripJoinRequest;
+import com.codex.backend.domain.trip.TripRequestStatus;
 import com.codex.backend.domain.user.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
@@ -13,4 +17,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface TripJoinRequestRepository extends JpaRepository<TripJoinRequest, UUID> {
 
     Optional<TripJoinRequest> findByTripAndApplicant(Trip trip, User applicant);
+
+    /**
+     * 批量加载一组行程中指定状态的报名请求及申请人。
+     */
+    @EntityGraph(attributePaths = "applicant")
+    List<TripJoinRequest> findByTripInAndStatusOrderByCreatedAtAsc(Collection<Trip> trips, TripRequestStatus status);
 }
@@ -2,8 +2,10 @@ package com.codex.backend.repository;
 
 import com.codex.backend.domain.trip.Trip;
 import com.codex.backend.domain.trip.TripMessage;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
@@ -12,4 +14,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface TripMessageRepository extends JpaRepository<TripMessage, UUID> {
 
     List<TripMessage> findByTripOrderByCreatedAtAsc(Trip trip);
+
+    /**
+     * 批量加载一组行程的群聊消息及发送者。
+     */
+    @EntityGraph(attributePaths = "sender")
+    List<TripMessage> findByTripInOrderByCreatedAtAsc(Collection<Trip> trips);
 }
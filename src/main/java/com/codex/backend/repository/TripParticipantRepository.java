@@ -3,9 +3,11 @@ package com.codex.backend.repository;
 import com.codex.backend.domain.trip.Trip;
 import com.codex.backend.domain.trip.TripParticipant;
 import com.codex.backend.domain.user.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
@@ -16,4 +18,10 @@ public interface TripParticipantRepository extends JpaRepository<TripParticipant
     List<TripParticipant> findByTrip(Trip trip);
 
     Optional<TripParticipant> findByTripAndUser(Trip trip, User user);
+
+    /**
+     * 批量加载一组行程的成员及其用户信息。
+     */
+    @EntityGraph(attributePaths = "user")
+    List<TripParticipant> findByTripInOrderByCreatedAtAsc(Collection<Trip> trips);
 }
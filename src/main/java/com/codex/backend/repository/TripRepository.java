@@ -1,11 +1,23 @@
 package com.codex.backend.repository;
 
 import com.codex.backend.domain.trip.Trip;
+import com.codex.backend.domain.trip.TripStatus;
 import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.projection.CollectionVersion;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 行程仓储：提供按成员或组织者查询的能力。
@@ -14,5 +26,122 @@ public interface TripRepository extends JpaRepository<Trip, UUID> {
 
     List<Trip> findByOrganizerOrParticipants_User(User organizer, User participant);
 
+    /**
+     * 行程时间轴：按 (start_at, id) 升序的键集分页，组织者随行程一并加载。
+     * 传入 {@link Pageable#unpaged()} 时返回窗口内全部行程。
+     */
+    @EntityGraph(attributePaths = "organizer")
+    @Query("""
+            select t from Trip t
+            where (:startFrom is null or t.startAt >= :startFrom)
+              and (:startTo is null or t.startAt < :startTo)
+              and (:endAfter is null or t.endAt >= :endAfter)
+              and (:anyStatus = true or t.status in :statuses)
+              and (:destination is null or t.destination = :destination)
+              and (:cursorStartAt is null
+                   or t.startAt > :cursorStartAt
+                   or (t.startAt = :cursorStartAt and t.id > :cursorId))
+            order by t.startAt asc, t.id asc
+            """)
+    List<Trip> findTimeline(
+            @Param("startFrom") Instant startFrom,
+            @Param("startTo") Instant startTo,
+            @Param("endAfter") Instant endAfter,
+            @Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<TripStatus> statuses,
+            @Param("destination") String destination,
+            @Param("cursorStartAt") Instant cursorStartAt,
+            @Param("cursorId") UUID cursorId,
+            Pageable pageable);
+
+    /**
+     * 不分页的时间轴流式版本：只读加载、按 fetch size 分批从游标取行，需在事务内消费并关闭。
+     */
+    @EntityGraph(attributePaths = "organizer")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t from Trip t
+            where (:startFrom is null or t.startAt >= :startFrom)
+              and (:startTo is null or t.startAt < :startTo)
+              and (:endAfter is null or t.endAt >= :endAfter)
+              and (:anyStatus = true or t.status in :statuses)
+              and (:destination is null or t.destination = :destination)
+            order by t.startAt asc, t.id asc
+            """)
+    Stream<Trip> streamTimeline(
+            @Param("startFrom") Instant startFrom,
+            @Param("startTo") Instant startTo,
+            @Param("endAfter") Instant endAfter,
+            @Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<TripStatus> statuses,
+            @Param("destination") String destination);
+
+    /**
+     * 与 {@link #findTimeline} 相同筛选条件下的行数与最近更新时间；成员、报名与群聊变化会刷新行程的 updated_at。
+     */
+    @Query("""
+            select new com.codex.backend.repository.projection.CollectionVersion(count(t), max(t.updatedAt))
+            from Trip t
+            where (:startFrom is null or t.startAt >= :startFrom)
+              and (:startTo is null or t.startAt < :startTo)
+              and (:endAfter is null or t.endAt >= :endAfter)
+              and (:anyStatus = true or t.status in :statuses)
+              and (:destination is null or t.destination = :destination)
+            """)
+    CollectionVersion findTimelineVersion(
+            @Param("startFrom") Instant startFrom,
+            @Param("startTo") Instant startTo,
+            @Param("endAfter") Instant endAfter,
+            @Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<TripStatus> statuses,
+            @Param("destination") String destination);
+
+    /**
+     * 同一筛选条件下成员（含组织者）资料的最近更新时间；群聊消息的发送者都是成员。
+     */
+    @Query("""
+            select max(u.updatedAt)
+            from TripParticipant p join p.user u join p.trip t
+            where (:startFrom is null or t.startAt >= :startFrom)
+              and (:startTo is null or t.startAt < :startTo)
+              and (:endAfter is null or t.endAt >= :endAfter)
+              and (:anyStatus = true or t.status in :statuses)
+              and (:destination is null or t.destination = :destination)
+            """)
+    Instant findTimelineMembersLastModified(
+            @Param("startFrom") Instant startFrom,
+            @Param("startTo") Instant startTo,
+            @Param("endAfter") Instant endAfter,
+            @Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<TripStatus> statuses,
+            @Param("destination") String destination);
+
+    /**
+     * 同一筛选条件下待处理报名的申请人资料的最近更新时间。
+     */
+    @Query("""
+            select max(u.updatedAt)
+            from TripJoinRequest r join r.applicant u join r.trip t
+            where (:startFrom is null or t.startAt >= :startFrom)
+              and (:startTo is null or t.startAt < :startTo)
+              and (:endAfter is null or t.endAt >= :endAfter)
+              and (:anyStatus = true or t.status in :statuses)
+              and (:destination is null or t.destination = :destination)
+              and r.status = com.codex.backend.domain.trip.TripRequestStatus.PENDING
+            """)
+    Instant findTimelinePendingApplicantsLastModified(
+            @Param("startFrom") Instant startFrom,
+            @Param("startTo") Instant startTo,
+            @Param("endAfter") Instant endAfter,
+            @Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<TripStatus> statuses,
+            @Param("destination") String destination);
+
+    @EntityGraph(attributePaths = "organizer")
+    List<Trip> findByIdIn(Collection<UUID> ids);
+
     Optional<Trip> findByIdAndOrganizer(UUID id, User organizer);
 }
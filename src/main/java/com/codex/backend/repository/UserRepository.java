@@ -1,11 +1,17 @@
 package com.codex.backend.repository;
 
 import com.codex.backend.domain.user.User;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select u.updatedAt from User u where u.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") UUID id);
 }
@@ -0,0 +1,30 @@
+package com.codex.backend.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * 集合版本：行数与最近更新时间，任一变化即说明集合内容可能变化。relatedLastModified 为随集合一并返回的关联行（Listing、卖家、成员等）的最近更新时间。
+ */
+public record CollectionVersion(Long count, Instant lastModified, Instant relatedLastModified) {
+
+    public CollectionVersion(Long count, Instant lastModified) {
+        this(count, lastModified, null);
+    }
+
+    /**
+     * 合并同一集合分开查询的两部分：行数相加，更新时间取较晚者。
+     */
+    public CollectionVersion combine(CollectionVersion other) {
+        return new CollectionVersion(
+                (count == null ? 0 : count) + (other.count == null ? 0 : other.count),
+                latest(lastModified, other.lastModified),
+                latest(relatedLastModified, other.relatedLastModified));
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,8 @@
+package com.codex.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * 建立空间索引所需的 Listing 坐标。
+ */
+public record ListingGeoView(UUID id, double latitude, double longitude) {}
@@ -0,0 +1,10 @@
+package com.codex.backend.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 建立搜索索引所需的 Listing 文本字段，不加载卖家等关联。
+ */
+public record ListingSearchView(
+        UUID id, String title, String description, String location, Instant createdAt) {}
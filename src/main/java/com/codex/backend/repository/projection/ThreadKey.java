@@ -0,0 +1,9 @@
+package com.codex.backend.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 会话的主键与排序键，流式输出时先按它归并两侧结果，再分块回表。
+ */
+public record ThreadKey(UUID id, Instant updatedAt) {}
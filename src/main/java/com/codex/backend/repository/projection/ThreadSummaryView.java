@@ -0,0 +1,28 @@
+package com.codex.backend.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 收件箱摘要投影：一条聚合查询得到会话、最后一条消息与未读数，不加载消息集合。
+ */
+public record ThreadSummaryView(
+        UUID threadId,
+        Boolean archived,
+        Instant updatedAt,
+        UUID listingId,
+        String listingTitle,
+        String listingImageUrl,
+        UUID buyerId,
+        String buyerDisplayName,
+        Double buyerRating,
+        Integer buyerDealsCount,
+        UUID sellerId,
+        String sellerDisplayName,
+        Double sellerRating,
+        Integer sellerDealsCount,
+        UUID lastMessageId,
+        UUID lastSenderId,
+        String lastMessageContent,
+        Instant lastMessageSentAt,
+        Long unreadCount) {}
@@ -1,32 +1,114 @@
 package com.codex.backend.security;
 
+import com.codex.backend.config.CacheProperties;
 import com.codex.backend.config.JwtProperties;
+import com.codex.backend.domain.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtTokenProvider {
 
+    /** 令牌内用户快照的格式版本，结构变化时递增，旧格式的快照一律回退到数据库加载。 */
+    static final int SNAPSHOT_FORMAT = 2;
+
     private final JwtProperties properties;
     private final Key signingKey;
     private final Duration expiration;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtTokenProvider(JwtProperties properties) {
+        this(properties, new CacheProperties());
+    }
+
+    @Autowired
+    public JwtTokenProvider(JwtProperties properties, CacheProperties cacheProperties) {
         this.properties = properties;
         this.signingKey = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
         this.expiration = Duration.parse(properties.getExpiration());
+        // 解析器线程安全，启动时构建一次，避免每个请求重复创建。
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireIssuer(properties.getIssuer())
+                .build();
+        Duration maxTtl = cacheProperties.getTokens().getTtl();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getTokens().getMaxSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        // 缓存项最晚在令牌过期时失效，同时不超过配置的 TTL 上限。
+                        Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+                        return Math.max(0, Math.min(remaining.toNanos(), maxTtl.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(UUID userId, String email) {
+        return builder(userId, email).compact();
+    }
+
+    public String generateToken(User user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * 为用户签发令牌；开启 {@code jwt.embed-user-snapshot} 时附带带版本的资料快照，鉴权时可免查数据库。
+     * sessionId 为刷新令牌的会话 ID，注销后据此让访问令牌失效。
+     */
+    public String generateToken(User user, UUID sessionId) {
+        JwtBuilder builder = builder(user.getId(), user.getEmail());
+        if (sessionId != null) {
+            builder.claim("sid", sessionId.toString());
+        }
+        if (properties.isEmbedUserSnapshot() && user.getUpdatedAt() != null) {
+            builder.claim("usv", SNAPSHOT_FORMAT)
+                    .claim("dn", user.getDisplayName())
+                    .claim("loc", user.getLocation())
+                    .claim("rt", user.getRating())
+                    .claim("dc", user.getDealsCount())
+                    .claim("lat", user.getLatitude())
+                    .claim("lon", user.getLongitude())
+                    .claim("uv", user.getUpdatedAt().toEpochMilli());
+        }
+        return builder.compact();
+    }
+
+    private JwtBuilder builder(UUID userId, String email) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(userId.toString())
@@ -34,30 +116,109 @@ public class JwtTokenProvider {
                 .setIssuer(properties.getIssuer())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plus(expiration)))
-                .signWith(signingKey, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256);
+    }
+
+    /**
+     * 校验令牌并返回其中的身份信息，每个请求只需调用一次。
+     *
+     * <p>近期验证过的令牌按摘要缓存到过期为止，稳定状态下的请求无需重复计算签名。
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(digest);
+        }
+        VerifiedToken verified = parseVerified(token);
+        if (verified == null) {
+            return Optional.empty();
+        }
+        verifiedTokens.put(digest, verified);
+        return Optional.of(verified);
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    public UUID extractUserId(String token) {
+        return verify(token)
+                .map(VerifiedToken::userId)
+                .orElseThrow(() -> new JwtException("Invalid token"));
+    }
+
+    /**
+     * 不经过缓存的完整校验：验证签名、签发方与有效期，失败时返回 null。
+     */
+    VerifiedToken parseVerified(String token) {
         try {
-            parseClaims(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedToken(
+                    UUID.fromString(claims.getSubject()),
+                    claims.getAudience(),
+                    claims.getExpiration().toInstant(),
+                    claims.get("sid") instanceof String sessionId ? UUID.fromString(sessionId) : null,
+                    readSnapshot(claims));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
         }
     }
 
-    public UUID extractUserId(String token) {
-        Claims claims = parseClaims(token);
-        return UUID.fromString(claims.getSubject());
+    /**
+     * 读取令牌中的用户快照；未携带、格式版本不符或字段不完整时返回 null，由调用方回退到数据库。
+     */
+    private static UserSnapshot readSnapshot(Claims claims) {
+        if (!(claims.get("usv") instanceof Number format) || format.intValue() != SNAPSHOT_FORMAT) {
+            return null;
+        }
+        if (!(claims.get("dn") instanceof String displayName)
+                || !(claims.get("rt") instanceof Number rating)
+                || !(claims.get("dc") instanceof Number dealsCount)
+                || !(claims.get("uv") instanceof Number version)) {
+            return null;
+        }
+        Object location = claims.get("loc");
+        return new UserSnapshot(
+                displayName,
+                location instanceof String value ? value : null,
+                rating.doubleValue(),
+                dealsCount.intValue(),
+                claims.get("lat") instanceof Number latitude ? latitude.doubleValue() : null,
+                claims.get("lon") instanceof Number longitude ? longitude.doubleValue() : null,
+                Instant.ofEpochMilli(version.longValue()));
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .requireIssuer(properties.getIssuer())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
+
+    /**
+     * 已通过校验的令牌内容，不可变，可在请求间安全共享；未携带会话或资料快照时对应字段为 null。
+     */
+    public record VerifiedToken(
+            UUID userId, String email, Instant expiresAt, UUID sessionId, UserSnapshot snapshot) {}
+
+    /**
+     * 签发时的用户资料快照，version 为当时用户记录的更新时间。
+     */
+    public record UserSnapshot(
+            String displayName,
+            String location,
+            double rating,
+            int dealsCount,
+            Double latitude,
+            Double longitude,
+            Instant version) {}
 }
@@ -0,0 +1,80 @@
+package com.codex.backend.security;
+
+import com.codex.backend.config.CacheProperties;
+import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * 鉴权主体缓存：按用户 ID 保存脱离持久化上下文的用户快照，稳定状态下鉴权过滤器不再访问数据库。
+ *
+ * <p>同时缓存各用户在数据库中的 updated_at，作为令牌内嵌用户快照的共享版本：各节点都以数据库为准判定快照是否过期，
+ * 跨节点的滞后不超过缓存有效期。用户更新或删除提交后由 {@link PrincipalCacheInvalidator} 驱逐本节点的两类条目。
+ */
+@Component
+public class PrincipalCache {
+
+    private final AsyncCache<UUID, AuthenticatedUser> cache;
+    private final AsyncCache<UUID, Instant> versions;
+
+    public PrincipalCache(CacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getPrincipals().getMaxSize())
+                .expireAfterWrite(properties.getPrincipals().getTtl())
+                .buildAsync();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.getPrincipals().getMaxSize())
+                .expireAfterWrite(properties.getPrincipals().getTtl())
+                .buildAsync();
+    }
+
+    public AuthenticatedUser get(UUID userId, Function<UUID, AuthenticatedUser> loader) {
+        return load(cache, userId, loader);
+    }
+
+    public void evict(UUID userId) {
+        cache.synchronous().invalidate(userId);
+        versions.synchronous().invalidate(userId);
+    }
+
+    /**
+     * 判断版本为 version 的用户快照是否仍然有效：不早于数据库中的当前版本即有效。
+     * 令牌只保留毫秒精度，两侧都截断到毫秒后比较；versionLoader 对不存在的用户应返回 {@link Instant#MAX}。
+     */
+    public boolean isCurrent(UUID userId, Instant version, Function<UUID, Instant> versionLoader) {
+        Instant current = load(versions, userId, versionLoader);
+        return !version.truncatedTo(ChronoUnit.MILLIS).isBefore(current.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * 未命中时在调用线程上、缓存内部锁之外加载，避免查库期间钉住虚拟线程的载体线程；同一用户并发未命中时共享一次加载。
+     * 加载期间被驱逐的结果不会写回缓存。
+     */
+    private static <V> V load(AsyncCache<UUID, V> target, UUID userId, Function<UUID, V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = target.asMap().putIfAbsent(userId, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                // 与自己加载失败时一致地抛出原始异常（如 UsernameNotFoundException）。
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            loading.complete(loader.apply(userId));
+        } catch (RuntimeException ex) {
+            target.asMap().remove(userId, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        return loading.join();
+    }
+}
@@ -0,0 +1,71 @@
+package com.codex.backend.security;
+
+import com.codex.backend.domain.user.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在 users 行更新或删除并提交后驱逐鉴权主体缓存。
+ *
+ * <p>通过 Hibernate 的提交后事件注册，无需在实体上引用安全层；回滚的修改不会触发驱逐。
+ */
+@Component
+public class PrincipalCacheInvalidator implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PrincipalCache principalCache;
+
+    public PrincipalCacheInvalidator(EntityManagerFactory entityManagerFactory, PrincipalCache principalCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.principalCache = principalCache;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            principalCache.evict(user.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // 未提交的修改不影响缓存。
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            // 删除后版本重新加载为 Instant.MAX，所有快照都视为过期，回退查询时会得到“用户不存在”。
+            principalCache.evict(user.getId());
+        }
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // 未提交的删除不影响缓存。
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return User.class.equals(persister.getMappedClass());
+    }
+}
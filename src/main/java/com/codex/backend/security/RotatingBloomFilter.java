@@ -0,0 +1,112 @@
+package com.codex.backend.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 由两代位图组成的布隆过滤器：每经过一个窗口丢弃较旧的一代，
+ * 因此元素至少保留一个窗口、至多保留两个窗口，内存占用固定。
+ *
+ * <p>只会误报不会漏报，命中后需要由调用方再确认。
+ */
+final class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final Duration window;
+    private final Clock clock;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    RotatingBloomFilter(int expectedInsertions, double falsePositiveRate, Duration window, Clock clock) {
+        int n = Math.max(1, expectedInsertions);
+        this.bits = (int) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        this.window = window;
+        this.clock = clock;
+        this.current = new Generation(bits, clock.instant());
+        this.previous = new Generation(bits, clock.instant());
+    }
+
+    void put(UUID value) {
+        rotateIfDue();
+        long h1 = mix(value.getMostSignificantBits() ^ value.getLeastSignificantBits());
+        long h2 = mix(value.getLeastSignificantBits() + 0x9E3779B97F4A7C15L);
+        Generation target = current;
+        for (int i = 0; i < hashes; i++) {
+            target.set(index(h1, h2, i));
+        }
+    }
+
+    boolean mightContain(UUID value) {
+        rotateIfDue();
+        long h1 = mix(value.getMostSignificantBits() ^ value.getLeastSignificantBits());
+        long h2 = mix(value.getLeastSignificantBits() + 0x9E3779B97F4A7C15L);
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            if (!generation.get(index(h1, h2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bits);
+    }
+
+    private void rotateIfDue() {
+        Instant now = clock.instant();
+        if (current.startedAt.plus(window).isAfter(now)) {
+            return;
+        }
+        synchronized (this) {
+            if (!current.startedAt.plus(window).isAfter(now)) {
+                previous = current;
+                current = new Generation(bits, now);
+            }
+        }
+    }
+
+    /**
+     * MurmurHash3 的 64 位收尾混合函数。
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final Instant startedAt;
+
+        private Generation(int bits, Instant startedAt) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.startedAt = startedAt;
+        }
+
+        private void set(int bit) {
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long existing;
+            do {
+                existing = words.get(word);
+            } while ((existing & mask) == 0 && !words.compareAndSet(word, existing, existing | mask));
+        }
+
+        private boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.codex.backend.security;
+
+import com.codex.backend.config.JwtProperties;
+import com.codex.backend.repository.RefreshTokenRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地会话吊销表：记录被注销或判定为盗用的登录会话（刷新令牌 familyId）。
+ *
+ * <p>访问令牌携带会话 ID，鉴权过滤器先查布隆过滤器，绝大多数请求无需访问数据库；
+ * 命中时再以 refresh_tokens 表确认，排除误报。记录保留至少一个访问令牌有效期，
+ * 之后该会话签发的访问令牌都已过期。其它节点在访问令牌过期前不会感知本地吊销。
+ */
+@Component
+public class SessionRevocations {
+
+    private final RotatingBloomFilter revoked;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    public SessionRevocations(JwtProperties properties, RefreshTokenRepository refreshTokenRepository) {
+        this.revoked = new RotatingBloomFilter(
+                100_000, 1e-6, Duration.parse(properties.getExpiration()), Clock.systemUTC());
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    public void revoke(UUID sessionId) {
+        revoked.put(sessionId);
+    }
+
+    public boolean isRevoked(UUID sessionId) {
+        return revoked.mightContain(sessionId) && refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNotNull(sessionId);
+    }
+}
@@ -2,21 +2,27 @@ package com.codex.backend.security;
 
 import com.codex.backend.domain.user.User;
 import com.codex.backend.repository.UserRepository;
+import com.codex.backend.security.JwtTokenProvider.UserSnapshot;
+import com.codex.backend.security.JwtTokenProvider.VerifiedToken;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -27,19 +33,63 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return new AuthenticatedUser(user);
     }
 
+    /**
+     * 按 ID 加载鉴权主体，优先命中 {@link PrincipalCache}；缓存中的用户已脱离持久化上下文，只作读取与关联引用。
+     */
     public UserDetails loadUserById(UUID id) {
-        User user = userRepository
-                .findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return new AuthenticatedUser(user);
+        return principalCache.get(id, key -> new AuthenticatedUser(userRepository
+                .findById(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"))));
+    }
+
+    /**
+     * 登录成功且旧哈希成本低于当前配置时由 Spring Security 回调，保存按新成本计算的哈希。
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((AuthenticatedUser) userDetails).getUser();
+        user.changePasswordHash(newPassword);
+        return new AuthenticatedUser(userRepository.save(user));
+    }
+
+    /**
+     * 按已校验的令牌加载鉴权主体：令牌携带的用户快照不早于数据库中的当前版本时直接还原，只需查询（并缓存）updated_at；
+     * 否则回退到 {@link #loadUserById}。
+     */
+    public UserDetails loadUserByToken(VerifiedToken token) {
+        UserSnapshot snapshot = token.snapshot();
+        if (snapshot != null && principalCache.isCurrent(token.userId(), snapshot.version(), this::currentVersion)) {
+            User user = User.fromSnapshot(
+                    token.userId(),
+                    token.email(),
+                    snapshot.displayName(),
+                    snapshot.location(),
+                    snapshot.rating(),
+                    snapshot.dealsCount(),
+                    snapshot.latitude(),
+                    snapshot.longitude(),
+                    snapshot.version());
+            return new AuthenticatedUser(user, true);
+        }
+        return loadUserById(token.userId());
+    }
+
+    private Instant currentVersion(UUID id) {
+        return userRepository.findUpdatedAtById(id).orElse(Instant.MAX);
     }
 
     public static class AuthenticatedUser implements UserDetails {
 
         private final User user;
+        private final boolean snapshot;
 
         private AuthenticatedUser(User user) {
+            this(user, false);
+        }
+
+        private AuthenticatedUser(User user, boolean snapshot) {
             this.user = user;
+            this.snapshot = snapshot;
         }
 
         @Override
@@ -80,5 +130,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         public User getUser() {
             return user;
         }
+
+        /**
+         * 是否由令牌快照还原；此时用户只包含快照字段，简介等其它资料需要另行加载。
+         */
+        public boolean isSnapshot() {
+            return snapshot;
+        }
     }
 }
@@ -6,7 +6,9 @@ import com.codex.backend.security.JwtTokenProvider;
 import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
 import com.codex.backend.web.dto.AuthResponse;
 import com.codex.backend.web.dto.LoginRequest;
+import com.codex.backend.web.dto.RefreshRequest;
 import com.codex.backend.web.dto.RegisterRequest;
+import com.codex.backend.web.dto.UpdateLocationRequest;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,9 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -31,37 +35,46 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             JwtTokenProvider jwtTokenProvider,
-            AuthenticationManager authenticationManager) {
+            AuthenticationManager authenticationManager,
+            RefreshTokenService refreshTokenService,
+            PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenProvider = jwtTokenProvider;
         this.authenticationManager = authenticationManager;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * 注册用户并立即生成访问令牌，字段与 iOS 端要求完全一致。
+     *
+     * <p>密码哈希在事务之外完成：排队等待哈希线程池期间不占用数据库连接，只有写入用户与令牌时才开启事务。
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.email())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
         }
-        User user = new User(
-                request.email(),
-                passwordEncoder.encode(request.password()),
-                request.displayName(),
-                "",
-                "",
-                0.0,
-                0);
-        User saved = userRepository.save(user);
-        String token = jwtTokenProvider.generateToken(saved.getId(), saved.getEmail());
-        return new AuthResponse(token, toPayload(saved));
+        String passwordHash = passwordEncoder.encode(request.password());
+        return transactionTemplate.execute(status -> {
+            User user = new User(
+                    request.email(),
+                    passwordHash,
+                    request.displayName(),
+                    "",
+                    "",
+                    0.0,
+                    0);
+            User saved = userRepository.save(user);
+            return issueTokens(refreshTokenService.issue(saved));
+        });
     }
 
     /**
@@ -72,9 +85,56 @@ public class AuthService {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.email(), request.password()));
         AuthenticatedUser authenticatedUser = (AuthenticatedUser) authentication.getPrincipal();
-        User user = authenticatedUser.getUser();
-        String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
-        return new AuthResponse(token, toPayload(user));
+        return issueTokens(refreshTokenService.issue(authenticatedUser.getUser()));
+    }
+
+    /**
+     * 用刷新令牌换取新的访问令牌与刷新令牌，不做密码校验。
+     *
+     * <p>令牌被重放时 rotate 会作废整组令牌并抛出 401；rotate 加入的是本方法的事务，回滚规则以这里为准，
+     * 因此同样不能因 {@link ResponseStatusException} 回滚，否则作废记录会被撤销。
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public AuthResponse refresh(RefreshRequest request) {
+        return issueTokens(refreshTokenService.rotate(request.refreshToken()));
+    }
+
+    /**
+     * 注销刷新令牌所属的会话。
+     */
+    public void logout(RefreshRequest request) {
+        refreshTokenService.revoke(request.refreshToken());
+    }
+
+    private AuthResponse issueTokens(RefreshTokenService.IssuedToken issued) {
+        String token = jwtTokenProvider.generateToken(issued.user(), issued.sessionId());
+        return new AuthResponse(token, toPayload(issued.user()), issued.rawToken());
+    }
+
+    /**
+     * 当前登录用户的完整资料；主体由令牌快照还原时快照不含简介，需从数据库补齐。
+     */
+    @Transactional(readOnly = true)
+    public AuthResponse.UserPayload currentUser(AuthenticatedUser principal) {
+        if (!principal.isSnapshot()) {
+            return toPayload(principal.getUser());
+        }
+        User user = userRepository
+                .findById(principal.getUser().getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+        return toPayload(user);
+    }
+
+    /**
+     * 保存当前用户的坐标，供附近查询使用；提交后鉴权缓存随之失效。
+     */
+    @Transactional
+    public AuthResponse.UserPayload updateLocation(AuthenticatedUser principal, UpdateLocationRequest request) {
+        User user = userRepository
+                .findById(principal.getUser().getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+        user.updateCoordinates(request.latitude(), request.longitude());
+        return toPayload(user);
     }
 
     /**
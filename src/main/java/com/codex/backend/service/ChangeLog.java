@@ -0,0 +1,188 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.SyncProperties;
+import com.codex.backend.domain.sync.ChangeLogEntry;
+import com.codex.backend.domain.sync.SyncEntityType;
+import com.codex.backend.repository.ChangeLogRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 增量同步的变更日志：写操作在业务事务内登记变更，提交前与业务数据同一连接、同一次提交写入，客户端按 seq 水位拉取。
+ *
+ * <p>seq 在提交前从 change_log_seq 计数行按块预留，行锁持有到提交或回滚，因此无论部署多少实例，
+ * seq 顺序都与提交顺序一致：seq=n 已提交时，更小的 seq 都已提交或回滚。{@link #head()} 直接取已提交的最大 seq。
+ * 预留放在提交前，行锁只覆盖插入日志与提交本身，不随业务事务的长短而变。
+ * 日志只记录“哪个对象变了”，内容在同步时按当前状态读取。
+ */
+@Component
+public class ChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLog.class);
+    private static final int COMPACTION_BATCH = 1_000;
+
+    private final ChangeLogRepository repository;
+    private final SyncProperties properties;
+    private final TransactionTemplate writeTemplate;
+
+    public ChangeLog(
+            ChangeLogRepository repository,
+            SyncProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 记录新增或修改；不传 audience 表示所有用户可见。日志在业务事务提交前写入，写入失败时异常从提交处抛出，业务事务随之回滚。
+     */
+    public void upsert(SyncEntityType type, UUID entityId, UUID... audience) {
+        record(type, entityId, false, audience);
+    }
+
+    /**
+     * 批量记录新增，与整批业务数据在同一事务内写入。
+     */
+    public void upsertAll(SyncEntityType type, Collection<UUID> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        append(entityIds.stream().map(id -> new ChangeLogEntry(type, id, null, false, now)).toList());
+    }
+
+    public void delete(SyncEntityType type, UUID entityId, UUID... audience) {
+        record(type, entityId, true, audience);
+    }
+
+    /**
+     * 客户端水位是否已落在被截断的日志之前（或来自重置前的日志），此时只能全量重新拉取。
+     */
+    public boolean requiresReset(long since, long head) {
+        if (since > head) {
+            return true;
+        }
+        Long floor = repository.findFloor();
+        return floor != null && since + 1 < floor;
+    }
+
+    /**
+     * 已提交的最大 seq；seq 按提交顺序分配，之前的 seq 都已提交或回滚。调用方须在同一事务内按此水位读取日志。
+     */
+    public long head() {
+        Long committed = repository.findHead();
+        return committed != null ? committed : 0L;
+    }
+
+    /**
+     * 压缩日志：超过保留期的部分截断到一行标记，更早的水位会被要求全量重拉；
+     * 同一对象被后续变更覆盖的旧行直接删除，不影响任何水位的结果。
+     */
+    @Scheduled(
+            initialDelayString = "${sync.compaction-interval:PT1H}",
+            fixedDelayString = "${sync.compaction-interval:PT1H}")
+    public void compact() {
+        Instant now = Instant.now();
+        int truncated = writeTemplate.execute(status -> {
+            Long last = repository.findLastBefore(now.minus(properties.getRetention()));
+            return last != null ? repository.deleteBefore(last) : 0;
+        });
+        Instant cutoff = now.minus(properties.getCompactAfter());
+        int collapsed = 0;
+        while (true) {
+            int deleted = writeTemplate.execute(status -> {
+                Long floor = repository.findFloor();
+                List<Long> seqs = repository.findSuperseded(
+                        cutoff, floor != null ? floor : 0L, PageRequest.of(0, COMPACTION_BATCH));
+                return seqs.isEmpty() ? 0 : repository.deleteBySeqIn(seqs);
+            });
+            collapsed += deleted;
+            if (deleted < COMPACTION_BATCH) {
+                break;
+            }
+        }
+        if (truncated > 0 || collapsed > 0) {
+            log.info("Compacted change log: {} expired, {} superseded", truncated, collapsed);
+        }
+    }
+
+    private void record(SyncEntityType type, UUID entityId, boolean deleted, UUID... audience) {
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        Instant now = Instant.now();
+        if (audience.length == 0) {
+            entries.add(new ChangeLogEntry(type, entityId, null, deleted, now));
+        }
+        for (UUID userId : audience) {
+            entries.add(new ChangeLogEntry(type, entityId, userId, deleted, now));
+        }
+        append(entries);
+    }
+
+    private void append(List<ChangeLogEntry> entries) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeTemplate.executeWithoutResult(status -> insert(entries));
+            return;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.addAll(entries);
+    }
+
+    private void insert(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        repository.reserveSeqs(entries.size());
+        long seq = repository.findLastReservedSeq() - entries.size();
+        for (ChangeLogEntry entry : entries) {
+            entry.assignSeq(++seq);
+        }
+        repository.saveAll(entries);
+    }
+
+    /**
+     * 当前事务内登记的变更，提交前一次性预留 seq 并批量写入；事务挂起期间解除绑定，内层新事务另起一份。
+     */
+    private final class PendingEntries implements TransactionSynchronization {
+
+        private final List<ChangeLogEntry> entries = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ChangeLog.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ChangeLog.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(entries);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLog.this);
+        }
+    }
+}
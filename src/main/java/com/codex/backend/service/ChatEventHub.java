@@ -0,0 +1,271 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.StreamProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 站内信与行程群聊的进程内发布/订阅：按用户维护推送连接，写消息的事务提交后扇出给在线参与者。
+ *
+ * <p>每个连接有独立的有界缓冲，由共享的发送线程池逐个排空，发布方从不阻塞在网络写上。
+ * 缓冲写满或单次写阻塞超过阈值（socket 发送缓冲已满）说明客户端跟不上，直接断开该连接；
+ * 客户端重连后用 {@code /api/sync} 补齐断线期间的变更。
+ *
+ * <p>SSE 的写是阻塞的，一条卡住的连接会占住一个线程直到写返回。发送线程池因此按需扩容：
+ * 固定大小的池会被少数卡住的连接占满，进而让所有健康连接的缓冲溢出。扩容到上限时新的排空任务被拒绝，
+ * 对应连接按慢连接断开。Java 21 下可改用虚拟线程排空，卡住的写只占一个虚拟线程。
+ */
+@Component
+public class ChatEventHub {
+
+    /**
+     * 推送连接的下游；payload 为 null 表示心跳。
+     */
+    public interface Sink {
+        void send(String event, Object payload) throws IOException;
+
+        void close();
+    }
+
+    private static final int DRAIN_BATCH = 32;
+
+    private final StreamProperties properties;
+    private final long slowSendNanos;
+    private final Map<UUID, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senderPool;
+    private final Executor senders;
+    private volatile boolean stopped;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public ChatEventHub(StreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowSendNanos = properties.getSlowSendThreshold().toNanos();
+        if (properties.isVirtualThreads()) {
+            this.senderPool = null;
+            this.senders = new VirtualThreadTaskExecutor("chat-stream-");
+        } else {
+            AtomicInteger sequence = new AtomicInteger();
+            int coreThreads = Math.max(1, properties.getSenderThreads());
+            this.senderPool = new ThreadPoolExecutor(
+                    coreThreads,
+                    Math.max(coreThreads, properties.getMaxSenderThreads()),
+                    60L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "chat-stream-" + sequence.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.senders = senderPool;
+            Gauge.builder("chat.stream.sender.threads", senderPool, ThreadPoolExecutor::getPoolSize)
+                    .register(meterRegistry);
+        }
+        this.delivered = Counter.builder("chat.stream.delivered").register(meterRegistry);
+        this.dropped = Counter.builder("chat.stream.dropped").register(meterRegistry);
+        Gauge.builder("chat.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * 注册一个推送连接；同一用户超过连接上限时关闭最早的连接（通常是网络切换后残留的旧连接）。
+     */
+    public Subscription subscribe(UUID userId, Sink sink) {
+        Subscription subscription = new Subscription(userId, sink, Math.max(1, properties.getBufferSize()));
+        List<Subscription> evicted = new ArrayList<>();
+        // 每个用户的连接列表只整体替换，发布时无需加锁即可遍历。
+        subscriptions.compute(userId, (id, existing) -> {
+            List<Subscription> next = existing != null ? new ArrayList<>(existing) : new ArrayList<>();
+            next.add(subscription);
+            while (next.size() > Math.max(1, properties.getMaxConnectionsPerUser())) {
+                evicted.add(next.remove(0));
+            }
+            return List.copyOf(next);
+        });
+        connections.incrementAndGet();
+        evicted.forEach(this::close);
+        return subscription;
+    }
+
+    /**
+     * 关闭并移除连接，可重复调用。
+     */
+    public void close(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.userId, (id, existing) -> {
+            List<Subscription> next = existing.stream().filter(other -> other != subscription).toList();
+            return next.isEmpty() ? null : next;
+        });
+        connections.decrementAndGet();
+        subscription.queue.clear();
+        subscription.sink.close();
+    }
+
+    /**
+     * 在当前事务提交后推送，回滚的消息不会被客户端看到。
+     */
+    public void publishAfterCommit(Collection<UUID> recipients, String event, Object payload) {
+        List<UUID> targets = List.copyOf(recipients);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(targets, event, payload);
+                }
+            });
+        } else {
+            publish(targets, event, payload);
+        }
+    }
+
+    public void publish(Collection<UUID> recipients, String event, Object payload) {
+        StreamEvent streamEvent = new StreamEvent(event, payload);
+        for (UUID userId : recipients) {
+            for (Subscription subscription : subscriptions.getOrDefault(userId, List.of())) {
+                offer(subscription, streamEvent);
+            }
+        }
+    }
+
+    /**
+     * 定期心跳：让代理与客户端保持连接，同时尽早发现已断开的连接。
+     */
+    @Scheduled(fixedDelayString = "${stream.heartbeat:PT25S}")
+    public void heartbeat() {
+        StreamEvent ping = new StreamEvent("ping", null);
+        subscriptions.values().forEach(list -> list.forEach(subscription -> offer(subscription, ping)));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * 发送线程池曾达到的线程数；虚拟线程模式下为 0。
+     */
+    public int peakSenderThreads() {
+        return senderPool != null ? senderPool.getLargestPoolSize() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        if (senderPool != null) {
+            senderPool.shutdownNow();
+        }
+        subscriptions.values().forEach(list -> list.forEach(this::close));
+    }
+
+    private void offer(Subscription subscription, StreamEvent event) {
+        if (subscription.closed.get()) {
+            return;
+        }
+        if (!subscription.queue.offer(event)) {
+            // 慢消费者：不为单个连接无限堆积内存，也不拖慢其他连接。
+            dropped.increment();
+            close(subscription);
+            return;
+        }
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException ex) {
+            subscription.draining.set(false);
+            if (!stopped) {
+                dropped.increment();
+                close(subscription);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            StreamEvent next;
+            int sent = 0;
+            // 每轮最多发送一批，再让出线程，繁忙的连接不会独占发送线程。
+            while (sent < DRAIN_BATCH && !subscription.closed.get() && (next = subscription.queue.poll()) != null) {
+                long started = System.nanoTime();
+                subscription.sink.send(next.name(), next.payload());
+                if (System.nanoTime() - started > slowSendNanos) {
+                    dropped.increment();
+                    close(subscription);
+                    break;
+                }
+                if (next.payload() != null) {
+                    delivered.increment();
+                }
+                sent++;
+            }
+        } catch (IOException | RuntimeException ex) {
+            // 客户端已断开或连接已超时。
+            close(subscription);
+        } finally {
+            subscription.draining.set(false);
+        }
+        // 排空结束与新事件入队之间的竞争：入队方看到 draining=true 时不会调度，这里补一次。
+        if (!subscription.closed.get() && !subscription.queue.isEmpty()) {
+            schedule(subscription);
+        }
+    }
+
+    /**
+     * 一个在线推送连接。
+     */
+    public static final class Subscription {
+
+        private final UUID userId;
+        private final Sink sink;
+        private final BlockingQueue<StreamEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(UUID userId, Sink sink, int bufferSize) {
+            this.userId = userId;
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+    }
+
+    private record StreamEvent(String name, Object payload) {}
+}
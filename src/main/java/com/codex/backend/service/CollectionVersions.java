@@ -0,0 +1,87 @@
+package com.codex.backend.service;
+
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.FavoriteRepository;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 为集合接口计算 ETag：只执行行数与最大更新时间的聚合查询，不组装 DTO。
+ *
+ * <p>版本要在读取数据之前计算，期间若有写入提交，下次轮询的 ETag 必然不同，只会多返回一次 200。
+ * 卖家、会话双方、行程成员等用户资料嵌在响应中，各版本查询只 join 本集合实际展示的用户，
+ * 其他用户修改资料不会使 ETag 失效。
+ */
+@Service
+public class CollectionVersions {
+
+    private final ListingRepository listingRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final MessageThreadRepository messageThreadRepository;
+    private final FavoriteIdCache favoriteIdCache;
+    private final TripService tripService;
+
+    public CollectionVersions(
+            ListingRepository listingRepository,
+            FavoriteRepository favoriteRepository,
+            MessageThreadRepository messageThreadRepository,
+            FavoriteIdCache favoriteIdCache,
+            TripService tripService) {
+        this.listingRepository = listingRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.messageThreadRepository = messageThreadRepository;
+        this.favoriteIdCache = favoriteIdCache;
+        this.tripService = tripService;
+    }
+
+    /**
+     * Listing 全量列表：全部 Listing 的版本加当前用户的收藏集合（决定 is_favorite）。
+     */
+    @Transactional(readOnly = true)
+    public String listings(User user) {
+        return etag("listings", user.getId(), listingRepository.findVersion(),
+                favoriteIdCache.get(user.getId()).stream().sorted().toList());
+    }
+
+    @Transactional(readOnly = true)
+    public String favorites(User user) {
+        return etag("favorites", user.getId(), favoriteRepository.findVersionByUser(user));
+    }
+
+    @Transactional(readOnly = true)
+    public String threads(User user) {
+        return etag("threads", user.getId(), messageThreadRepository.findVersionByParticipant(user),
+                favoriteIdCache.get(user.getId()).stream().sorted().toList());
+    }
+
+    /**
+     * 行程时间轴与用户无关，版本按同样的筛选条件计算。
+     */
+    @Transactional(readOnly = true)
+    public String trips(TripTimelineQuery query) {
+        return etag("trips", Objects.hash(query.from(), query.to(), query.status(), query.destination()),
+                tripService.timelineVersion(query));
+    }
+
+    private static String etag(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            raw.append(part).append('|');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.toString().getBytes(StandardCharsets.UTF_8));
+            // 弱 ETag：同一版本的响应语义相同，压缩等传输编码不影响比较。
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
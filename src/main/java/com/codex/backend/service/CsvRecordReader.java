@@ -0,0 +1,126 @@
+package com.codex.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐条读取 RFC 4180 风格的 CSV：支持双引号包裹、引号内的逗号与换行以及 {@code ""} 转义，
+ * 兼容 CRLF 与 Excel 导出时带的 UTF-8 BOM。
+ *
+ * <p>一次只在内存中保留当前这一条记录，单条记录超过 {@code maxRecordLength} 个字符即报错，
+ * 避免未闭合的引号把整个文件读进内存。调用方负责包一层缓冲。
+ */
+final class CsvRecordReader {
+
+    private static final int NONE = -2;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private int pushback = NONE;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * 读取下一条记录，文件结束时返回 null；空行会被跳过。
+     */
+    List<String> next() throws IOException {
+        while (true) {
+            List<String> record = readRecord();
+            if (record == null || !(record.size() == 1 && record.get(0).isEmpty())) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * 上一条记录起始处的行号（从 1 开始），用于报错定位。
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (c != -1 && ++length > maxRecordLength) {
+                throw new IOException("Record at line " + recordLine + " exceeds " + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushback = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty() && !afterQuote) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != NONE) {
+            int c = pushback;
+            pushback = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,42 @@
+package com.codex.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 按距离排序的分页游标：由上一页最后一条的距离与主键组成，对外编码为不透明字符串。
+ */
+public record DistanceCursor(double distanceKm, UUID id) {
+
+    public String encode() {
+        String raw = Double.toString(distanceKm) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 判断 (distanceKm, id) 是否排在游标之后。
+     */
+    public boolean precedes(double otherDistanceKm, UUID otherId) {
+        int byDistance = Double.compare(distanceKm, otherDistanceKm);
+        return byDistance < 0 || (byDistance == 0 && id.compareTo(otherId) < 0);
+    }
+
+    public static DistanceCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new DistanceCursor(Double.parseDouble(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.codex.backend.service;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+/**
+ * 流式查询的分块消费：每攒满一块交给调用方组装响应，处理完清空持久化上下文，
+ * 使一次请求驻留的实体数量与结果总数无关。需在只读事务内调用。
+ */
+@Component
+public class EntityStreams {
+
+    static final int CHUNK_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    public EntityStreams(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> void forEachChunk(Stream<T> rows, Consumer<List<T>> action) {
+        Iterator<T> iterator = rows.iterator();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, action);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, action);
+        }
+    }
+
+    private <T> void flush(List<T> chunk, Consumer<List<T>> action) {
+        action.accept(chunk);
+        // 只读事务内没有待写入的变更，clear 只会丢弃已输出实体的引用与快照。
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.CacheProperties;
+import com.codex.backend.repository.FavoriteRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 按用户缓存收藏的 Listing ID 集合，列表渲染 is_favorite 时无需再查 favorites 表。
+ *
+ * <p>缓存由 {@link FavoriteService} 在事务提交后增量维护，过期时间兜底其他写入路径。
+ */
+@Component
+public class FavoriteIdCache {
+
+    private final FavoriteRepository favoriteRepository;
+    private final AsyncCache<UUID, Set<UUID>> cache;
+
+    public FavoriteIdCache(FavoriteRepository favoriteRepository, CacheProperties properties) {
+        this.favoriteRepository = favoriteRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getFavorites().getMaxSize())
+                .expireAfterWrite(properties.getFavorites().getTtl())
+                .buildAsync();
+    }
+
+    /**
+     * 返回用户当前收藏的 Listing ID（不可变集合），未命中时用一条只查 ID 的语句加载。
+     *
+     * <p>查询在调用线程上、缓存内部锁之外执行（{@code Cache.get(key, loader)} 会在 synchronized 段内查库，
+     * 虚拟线程下会钉住载体线程）；同一用户并发未命中时等待同一次加载。
+     */
+    public Set<UUID> get(UUID userId) {
+        CompletableFuture<Set<UUID>> loading = new CompletableFuture<>();
+        CompletableFuture<Set<UUID>> existing = cache.asMap().putIfAbsent(userId, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            loading.complete(Set.copyOf(favoriteRepository.findActiveListingIdsByUserId(userId)));
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(userId, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        return loading.join();
+    }
+
+    public void onAdded(UUID userId, UUID listingId) {
+        // 加载中的条目同样生效：变更串在加载结果之后。
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, ids) -> ids.thenApply(current -> {
+            Set<UUID> updated = new HashSet<>(current);
+            updated.add(listingId);
+            return Set.copyOf(updated);
+        })));
+    }
+
+    public void onRemoved(UUID userId, UUID listingId) {
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, ids) -> ids.thenApply(current -> {
+            Set<UUID> updated = new HashSet<>(current);
+            updated.remove(listingId);
+            return Set.copyOf(updated);
+        })));
+    }
+
+    private void afterCommit(Runnable action) {
+        // 回滚的写入不能污染缓存，因此在事务提交后再更新。
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
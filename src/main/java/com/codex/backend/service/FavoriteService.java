@@ -2,11 +2,13 @@ package com.codex.backend.service;
 
 import com.codex.backend.domain.favorite.Favorite;
 import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.sync.SyncEntityType;
 import com.codex.backend.domain.user.User;
 import com.codex.backend.repository.FavoriteRepository;
 import com.codex.backend.repository.ListingRepository;
 import com.codex.backend.web.dto.FavoriteResponse;
 import com.codex.backend.web.dto.ListingResponse;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -23,14 +25,20 @@ public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final ListingRepository listingRepository;
     private final ListingService listingService;
+    private final FavoriteIdCache favoriteIdCache;
+    private final ChangeLog changeLog;
 
     public FavoriteService(
             FavoriteRepository favoriteRepository,
             ListingRepository listingRepository,
-            ListingService listingService) {
+            ListingService listingService,
+            FavoriteIdCache favoriteIdCache,
+            ChangeLog changeLog) {
         this.favoriteRepository = favoriteRepository;
         this.listingRepository = listingRepository;
         this.listingService = listingService;
+        this.favoriteIdCache = favoriteIdCache;
+        this.changeLog = changeLog;
     }
 
     /**
@@ -57,6 +65,8 @@ public class FavoriteService {
                 .findByUserAndListing(user, listing)
                 .orElseGet(() -> favoriteRepository.save(new Favorite(user, listing)));
         favorite.setArchived(false);
+        favoriteIdCache.onAdded(user.getId(), listingId);
+        changeLog.upsert(SyncEntityType.FAVORITE, listingId, user.getId());
         // 立即返回最新收藏状态，供前端同步收藏图标与线程状态。
         return toResponse(favorite);
     }
@@ -72,6 +82,18 @@ public class FavoriteService {
         favoriteRepository
                 .findByUserAndListing(user, listing)
                 .ifPresent(favoriteRepository::delete);
+        favoriteIdCache.onRemoved(user.getId(), listingId);
+        changeLog.delete(SyncEntityType.FAVORITE, listingId, user.getId());
+    }
+
+    /**
+     * 按 Listing ID 批量加载当前用户的有效收藏，已取消的收藏不会返回。
+     */
+    @Transactional(readOnly = true)
+    public List<FavoriteResponse> favoritesByListingIds(User user, Collection<UUID> listingIds) {
+        return favoriteRepository.findActiveByUserAndListingIds(user, listingIds).stream()
+                .map(this::toResponse)
+                .toList();
     }
 
     private FavoriteResponse toResponse(Favorite favorite) {
@@ -0,0 +1,209 @@
+package com.codex.backend.service;
+
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.projection.ListingGeoView;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listing 坐标的进程内网格索引：按 0.1° 经纬度网格分桶，附近查询从中心格向外逐圈扩展。
+ *
+ * <p>已收集到的结果足够且比下一圈可能出现的最近点更近时即停止，扫描范围还受查询半径约束，
+ * 因此查询成本只取决于附近的 Listing 密度，与全站总量无关。翻页时直接从可能出现游标之后结果的那一圈开始，
+ * 不再重扫前几页已经返回过的内圈。
+ */
+@Component
+public class ListingGeoIndex {
+
+    static final double CELL_DEGREES = 0.1;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+    private final ListingRepository listingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<UUID, Point> points = new HashMap<>();
+
+    public ListingGeoIndex(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        listingRepository.findAllGeoViews().forEach(this::add);
+    }
+
+    /**
+     * 在当前事务提交后登记带坐标的 Listing。
+     */
+    public void indexAfterCommit(Listing listing) {
+        if (listing.getLatitude() == null || listing.getLongitude() == null) {
+            return;
+        }
+        ListingGeoView view = new ListingGeoView(listing.getId(), listing.getLatitude(), listing.getLongitude());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(view);
+                }
+            });
+        } else {
+            add(view);
+        }
+    }
+
+    public void add(ListingGeoView view) {
+        Point point = new Point(view.id(), view.latitude(), view.longitude());
+        lock.writeLock().lock();
+        try {
+            Point previous = points.put(point.id(), point);
+            if (previous != null) {
+                List<Point> bucket = cells.get(cellKey(previous.latitude(), previous.longitude()));
+                if (bucket != null) {
+                    bucket.remove(previous);
+                }
+            }
+            cells.computeIfAbsent(cellKey(point.latitude(), point.longitude()), key -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 返回半径内、排在游标之后的最近 limit 条 Listing，按 (距离, id) 升序。
+     */
+    public List<GeoHit> near(double latitude, double longitude, double radiusKm, DistanceCursor after, int limit) {
+        int originRow = row(latitude);
+        int originColumn = column(longitude);
+        int maxRing = maxRing(latitude, radiusKm);
+        List<GeoHit> candidates = new ArrayList<>();
+        // 尚未确认排名的候选距离；每扫完一圈弹出已确认的部分，累计计数，不必每圈重扫全部候选。
+        PriorityQueue<Double> unconfirmed = new PriorityQueue<>();
+        int confirmed = 0;
+        lock.readLock().lock();
+        try {
+            for (int ring = firstRing(after, maxRing); ring <= maxRing; ring++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    int row = originRow + dy;
+                    if (row < 0 || row >= ROWS) {
+                        continue;
+                    }
+                    boolean edgeRow = Math.abs(dy) == ring;
+                    for (int dx = -ring; dx <= ring; dx += edgeRow ? 1 : 2 * ring) {
+                        List<Point> bucket = cells.get(key(row, Math.floorMod(originColumn + dx, COLUMNS)));
+                        if (bucket != null) {
+                            collect(bucket, latitude, longitude, radiusKm, after, candidates, unconfirmed);
+                        }
+                        if (ring == 0) {
+                            break;
+                        }
+                    }
+                }
+                double reached = guaranteedDistance(latitude, ring);
+                while (!unconfirmed.isEmpty() && unconfirmed.peek() <= reached) {
+                    unconfirmed.poll();
+                    confirmed++;
+                }
+                if (reached >= radiusKm || confirmed >= limit) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        candidates.sort(Comparator.comparingDouble(GeoHit::distanceKm).thenComparing(GeoHit::id));
+        return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+    }
+
+    private static void collect(
+            List<Point> bucket,
+            double latitude,
+            double longitude,
+            double radiusKm,
+            DistanceCursor after,
+            List<GeoHit> candidates,
+            PriorityQueue<Double> unconfirmed) {
+        for (Point point : bucket) {
+            double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance <= radiusKm && (after == null || after.precedes(distance, point.id()))) {
+                candidates.add(new GeoHit(point.id(), distance));
+                unconfirmed.add(distance);
+            }
+        }
+    }
+
+    /**
+     * 第 ring 圈内任意点与原点的距离不超过 2 × (ring + 1) 个网格边长（先沿经线、再沿纬线走的路径长度），
+     * 上界仍小于游标距离的内圈只含已返回过的结果，直接跳过。
+     */
+    private static int firstRing(DistanceCursor after, int maxRing) {
+        if (after == null) {
+            return 0;
+        }
+        int ring = (int) Math.ceil(after.distanceKm() / (2 * CELL_DEGREES * KM_PER_DEGREE)) - 1;
+        return Math.max(0, Math.min(ring, maxRing));
+    }
+
+    /**
+     * 扫描完第 ring 圈后，圈外任意点与原点的最小可能距离（按最靠近极点一侧的经度收缩保守估计）。
+     */
+    private static double guaranteedDistance(double latitude, int ring) {
+        double edgeLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * CELL_DEGREES);
+        return ring * CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLatitude));
+    }
+
+    private static int maxRing(double latitude, double radiusKm) {
+        double edgeLatitude = Math.min(89.9, Math.abs(latitude) + radiusKm / KM_PER_DEGREE + CELL_DEGREES);
+        double columnKm = CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLatitude));
+        int rings = (int) Math.ceil(radiusKm / columnKm) + 1;
+        return Math.min(rings, (COLUMNS - 1) / 2);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    private record Point(UUID id, double latitude, double longitude) {}
+
+    /**
+     * 附近查询的命中项。
+     */
+    public record GeoHit(UUID id, double distanceKm) {}
+}
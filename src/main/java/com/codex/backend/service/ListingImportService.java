@@ -0,0 +1,267 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.ListingImportProperties;
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.sync.SyncEntityType;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.web.dto.CreateListingRequest;
+import com.codex.backend.web.dto.ListingImportResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 批量导入 Listing：供商家从其他平台迁移库存，支持 CSV 与 JSON 数组两种格式。
+ *
+ * <p>请求体按流逐行解析，内存中只保留当前一批；每满一批在独立事务中写入，配合 Hibernate 的
+ * {@code jdbc.batch_size} 以 JDBC 批量 INSERT 落库。单行校验失败只跳过该行并记录原因，
+ * 校验规则与单条发布接口一致；文件中途无法解析或写库失败时停止导入，已提交的批次保留。
+ */
+@Service
+public class ListingImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("title", "description", "condition", "price", "location", "trade_option");
+    private static final Set<String> CSV_COLUMNS = Set.of(
+            "title", "description", "condition", "price", "location", "trade_option",
+            "image_url", "latitude", "longitude");
+    private static final PropertyNamingStrategies.NamingBase SNAKE_CASE =
+            new PropertyNamingStrategies.SnakeCaseStrategy();
+
+    private final ListingService listingService;
+    private final ListingRepository listingRepository;
+    private final ListingSearchIndex searchIndex;
+    private final ListingGeoIndex geoIndex;
+    private final ChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ListingImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ListingImportService(
+            ListingService listingService,
+            ListingRepository listingRepository,
+            ListingSearchIndex searchIndex,
+            ListingGeoIndex geoIndex,
+            ChangeLog changeLog,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ListingImportProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.listingService = listingService;
+        this.listingRepository = listingRepository;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 导入 UTF-8 CSV：首行为表头，列名与 JSON 字段一致（如 `trade_option`），顺序不限，未知列忽略。
+     */
+    public ListingImportResponse importCsv(User seller, InputStream body) {
+        CsvRecordReader csv = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                properties.getMaxRecordLength());
+        Batch batch = new Batch(seller);
+        try {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "CSV file is empty");
+            }
+            List<String> columns = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.contains(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new ResponseStatusException(
+                        HttpStatus.UNPROCESSABLE_ENTITY, "Missing CSV columns: " + String.join(", ", missing));
+            }
+            List<String> record;
+            while (batch.isOpen() && (record = csv.next()) != null) {
+                ObjectNode node = objectMapper.createObjectNode();
+                for (int i = 0; i < Math.min(columns.size(), record.size()); i++) {
+                    String value = record.get(i).trim();
+                    // 空单元格视为未填写，交给校验规则判断是否必填。
+                    if (!value.isEmpty() && CSV_COLUMNS.contains(columns.get(i))) {
+                        node.put(columns.get(i), value);
+                    }
+                }
+                batch.accept(node);
+            }
+        } catch (IOException ex) {
+            batch.abort("Malformed CSV: " + ex.getMessage());
+        }
+        return batch.finish();
+    }
+
+    /**
+     * 导入 JSON 数组：每个元素与单条发布接口的请求体相同。
+     */
+    public ListingImportResponse importJson(User seller, InputStream body) {
+        Batch batch = new Batch(seller);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(
+                        HttpStatus.UNPROCESSABLE_ENTITY, "JSON import expects an array of listings");
+            }
+            while (batch.isOpen()) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_ARRAY) {
+                    break;
+                }
+                if (token == null) {
+                    batch.abort("Malformed JSON: unexpected end of input");
+                    break;
+                }
+                // 逐个元素读成树，单个元素字段类型不对时只影响这一行，解析器仍停在下一元素之前。
+                batch.accept(objectMapper.readTree(parser));
+            }
+        } catch (JsonProcessingException ex) {
+            batch.abort("Malformed JSON: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            batch.abort("Failed to read request body");
+        }
+        return batch.finish();
+    }
+
+    /**
+     * 单次导入的状态：当前批次、计数与前若干条错误。
+     */
+    private final class Batch {
+
+        private final User seller;
+        private final List<Listing> pending = new ArrayList<>();
+        private final List<ListingImportResponse.RowError> errors = new ArrayList<>();
+        private long row;
+        private long pendingFirstRow;
+        private int imported;
+        private int failed;
+        private boolean completed = true;
+
+        private Batch(User seller) {
+            this.seller = seller;
+        }
+
+        boolean isOpen() {
+            return completed;
+        }
+
+        void accept(JsonNode node) {
+            row++;
+            if (!(node instanceof ObjectNode)) {
+                reject("Expected a JSON object");
+                return;
+            }
+            try {
+                CreateListingRequest request = objectMapper.treeToValue(node, CreateListingRequest.class);
+                Set<ConstraintViolation<CreateListingRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    reject(describe(violations));
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    pendingFirstRow = row;
+                }
+                pending.add(listingService.newListing(seller, request));
+            } catch (JsonProcessingException ex) {
+                reject(describe(ex));
+                return;
+            } catch (ResponseStatusException ex) {
+                reject(ex.getReason());
+                return;
+            }
+            if (pending.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void abort(String message) {
+            completed = false;
+            errors.add(new ListingImportResponse.RowError(row + 1, message));
+        }
+
+        ListingImportResponse finish() {
+            // 解析中断前已通过校验的行照常写入；写库失败时 pending 已清空。
+            flush();
+            return new ListingImportResponse(imported, failed, completed, List.copyOf(errors));
+        }
+
+        private void reject(String message) {
+            failed++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new ListingImportResponse.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Listing> listings = List.copyOf(pending);
+            pending.clear();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    listingRepository.saveAll(listings);
+                    listings.forEach(searchIndex::indexAfterCommit);
+                    listings.forEach(geoIndex::indexAfterCommit);
+                    changeLog.upsertAll(
+                            SyncEntityType.LISTING, listings.stream().map(Listing::getId).toList());
+                });
+                imported += listings.size();
+            } catch (RuntimeException ex) {
+                log.warn("Listing import batch starting at row {} failed", pendingFirstRow, ex);
+                failed += listings.size();
+                completed = false;
+                errors.add(new ListingImportResponse.RowError(
+                        pendingFirstRow, "Failed to save rows " + pendingFirstRow + "-" + row));
+            }
+        }
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> SNAKE_CASE.translate(violation.getPropertyPath().toString())
+                        + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String describe(JsonProcessingException ex) {
+        if (ex instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) {
+                return "Invalid " + field + " value";
+            }
+        }
+        return "Invalid listing data";
+    }
+}
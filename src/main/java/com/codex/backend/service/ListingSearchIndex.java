@@ -0,0 +1,339 @@
+package com.codex.backend.service;
+
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.projection.ListingSearchView;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listing 全文检索的进程内倒排索引：覆盖标题、描述与所在地，按 BM25 排序。
+ *
+ * <p>拉丁字母与数字按单词切分；中文按单字与相邻二元组切分，无需词典即可匹配“单板”“滑雪板”等描述。
+ * 启动时从数据库全量构建，之后由 {@link ListingService#create} 在事务提交后增量追加。
+ */
+@Component
+public class ListingSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ListingRepository listingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+    private long[] createdAts = new long[1024];
+    private float[] lengths = new float[1024];
+    private final BitSet removed = new BitSet();
+    /** 打分缓冲区池：用完后只清零 touched 中的位置再归还。不用 ThreadLocal，虚拟线程逐请求新建时同样能复用。 */
+    private final Queue<float[]> scoreBuffers = new ConcurrentLinkedQueue<>();
+    private double totalLength;
+    private int liveDocs;
+
+    public ListingSearchIndex(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        listingRepository.findAllSearchViews().forEach(this::add);
+    }
+
+    /**
+     * 在当前事务提交后把新 Listing 加入索引，回滚的写入不会被检索到。
+     */
+    public void indexAfterCommit(Listing listing) {
+        ListingSearchView view = new ListingSearchView(
+                listing.getId(),
+                listing.getTitle(),
+                listing.getDescription(),
+                listing.getLocation(),
+                listing.getCreatedAt());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(view);
+                }
+            });
+        } else {
+            add(view);
+        }
+    }
+
+    /**
+     * 加入或替换一条 Listing；同一 ID 重复加入时旧文档被标记删除。
+     */
+    public void add(ListingSearchView view) {
+        Map<String, Float> terms = new HashMap<>();
+        collect(terms, view.title(), TITLE_WEIGHT);
+        collect(terms, view.location(), LOCATION_WEIGHT);
+        collect(terms, view.description(), DESCRIPTION_WEIGHT);
+        float length = 0;
+        for (float weight : terms.values()) {
+            length += weight;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = docIds.get(view.id());
+            if (previous != null) {
+                removed.set(previous);
+                totalLength -= lengths[previous];
+                liveDocs--;
+            }
+            int doc = ids.size();
+            ids.add(view.id());
+            if (doc == lengths.length) {
+                lengths = Arrays.copyOf(lengths, doc * 2);
+                createdAts = Arrays.copyOf(createdAts, doc * 2);
+            }
+            lengths[doc] = length;
+            createdAts[doc] = view.createdAt() != null ? view.createdAt().toEpochMilli() : 0L;
+            docIds.put(view.id(), doc);
+            totalLength += length;
+            liveDocs++;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new Postings()).append(doc, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索并返回排名区间 [offset, offset + limit) 的 Listing ID；同分时较新的 Listing 在前。
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        Set<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), false);
+        }
+        lock.readLock().lock();
+        float[] scores = borrowScores(ids.size());
+        int[] touched = new int[0];
+        int touchedCount = 0;
+        try {
+            float averageLength = liveDocs > 0 ? (float) (totalLength / liveDocs) : 1f;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (removed.get(doc)) {
+                        continue;
+                    }
+                    float tf = list.weights[i];
+                    float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    if (scores[doc] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, Math.max(16, touchedCount * 2));
+                        }
+                        touched[touchedCount++] = doc;
+                    }
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            // 只保留前 offset + limit + 1 名：小顶堆，堆顶是当前入选者中排名最低的一个。
+            int wanted = offset + limit + 1;
+            int[] heap = new int[Math.min(wanted, touchedCount)];
+            int heapSize = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                if (heapSize < heap.length) {
+                    heap[heapSize] = doc;
+                    siftUp(heap, heapSize++, scores);
+                } else if (heapSize > 0 && compare(scores, doc, heap[0]) > 0) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, scores);
+                }
+            }
+            int[] ranked = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                ranked[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, scores);
+            }
+            List<UUID> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(ranked.length, offset + limit); i++) {
+                page.add(ids.get(ranked[i]));
+            }
+            return new SearchHits(page, ranked.length > offset + limit);
+        } finally {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            scoreBuffers.offer(scores);
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 取一块至少 docCount 长的全零缓冲区；池中过短的（索引增长之前分配的）直接丢弃。须在读锁内调用。
+     */
+    private float[] borrowScores(int docCount) {
+        float[] scores;
+        while ((scores = scoreBuffers.poll()) != null) {
+            if (scores.length >= docCount) {
+                return scores;
+            }
+        }
+        return new float[lengths.length];
+    }
+
+    private void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(scores, heap[index], heap[parent]) >= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compare(scores, heap[left], heap[smallest]) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(scores, heap[right], heap[smallest]) < 0) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private int compare(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byTime = Long.compare(createdAts[a], createdAts[b]);
+        return byTime != 0 ? byTime : Integer.compare(a, b);
+    }
+
+    private static void collect(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text, true)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static Set<String> queryTerms(String query) {
+        return new LinkedHashSet<>(tokenize(query, false));
+    }
+
+    /**
+     * 切分文本。建索引时中文同时产出单字与二元组；查询时连续两个以上汉字只用二元组，单个汉字用单字。
+     */
+    static List<String> tokenize(String text, boolean indexing) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<String> han = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                flushWord(word, tokens);
+                han.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushHan(han, tokens, indexing);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushHan(han, tokens, indexing);
+            }
+        }
+        flushWord(word, tokens);
+        flushHan(han, tokens, indexing);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushHan(List<String> han, List<String> tokens, boolean indexing) {
+        if (han.isEmpty()) {
+            return;
+        }
+        if (indexing || han.size() == 1) {
+            tokens.addAll(han);
+        }
+        for (int j = 0; j + 1 < han.size(); j++) {
+            tokens.add(han.get(j) + han.get(j + 1));
+        }
+        han.clear();
+    }
+
+    /**
+     * 单个词项的倒排表，文档号递增追加。
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void append(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    /**
+     * 一页检索结果，按相关度排序；hasMore 表示后面还有结果。
+     */
+    public record SearchHits(List<UUID> ids, boolean hasMore) {}
+}
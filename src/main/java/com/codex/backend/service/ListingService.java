@@ -3,20 +3,32 @@ package com.codex.backend.service;
 import com.codex.backend.domain.listing.Listing;
 import com.codex.backend.domain.listing.ListingCondition;
 import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.sync.SyncEntityType;
 import com.codex.backend.domain.user.User;
-import com.codex.backend.repository.FavoriteRepository;
 import com.codex.backend.repository.ListingRepository;
 import com.codex.backend.web.dto.AuthResponse;
 import com.codex.backend.web.dto.CreateListingRequest;
+import com.codex.backend.web.dto.ListingFeedQuery;
+import com.codex.backend.web.dto.ListingNearQuery;
 import com.codex.backend.web.dto.ListingResponse;
+import com.codex.backend.web.dto.PageResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.springframework.data.domain.Sort;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -25,15 +37,32 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class ListingService {
 
+    private static final double DEFAULT_RADIUS_KM = 50;
+    private static final double MAX_RADIUS_KM = 500;
+
     private final ListingRepository listingRepository;
-    private final FavoriteRepository favoriteRepository;
+    private final FavoriteIdCache favoriteIdCache;
     private final AuthService authService;
+    private final ListingSearchIndex searchIndex;
+    private final ListingGeoIndex geoIndex;
+    private final ChangeLog changeLog;
+    private final EntityStreams entityStreams;
 
     public ListingService(
-            ListingRepository listingRepository, FavoriteRepository favoriteRepository, AuthService authService) {
+            ListingRepository listingRepository,
+            FavoriteIdCache favoriteIdCache,
+            AuthService authService,
+            ListingSearchIndex searchIndex,
+            ListingGeoIndex geoIndex,
+            ChangeLog changeLog,
+            EntityStreams entityStreams) {
         this.listingRepository = listingRepository;
-        this.favoriteRepository = favoriteRepository;
+        this.favoriteIdCache = favoriteIdCache;
         this.authService = authService;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.changeLog = changeLog;
+        this.entityStreams = entityStreams;
     }
 
     /**
@@ -42,27 +71,144 @@ public class ListingService {
     @Transactional(readOnly = true)
     public List<ListingResponse> fetchAll(User user) {
         // iOS 端会把最新发布的放在顶部，这里按 created_at 倒序返回。
-        List<Listing> listings = listingRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<Listing> listings = listingRepository.findAllByOrderByCreatedAtDesc();
         if (user == null) {
             return listings.stream().map(listing -> toResponse(listing, listing.isFavorite())).toList();
         }
-        Set<UUID> favoriteIds = favoriteRepository
-                .findByUserAndArchivedFalseOrderByCreatedAtDesc(user)
-                .stream()
-                // 前端需要根据 is_favorite 渲染收藏状态，这里预计算当前用户的收藏集合。
-                .map(favorite -> favorite.getListing().getId())
-                .collect(Collectors.toSet());
+        // 前端需要根据 is_favorite 渲染收藏状态，收藏集合来自按用户缓存的 ID 集合。
+        Set<UUID> favoriteIds = favoriteIdCache.get(user.getId());
         return listings.stream()
                 .map(listing -> toResponse(
                         listing, favoriteIds.contains(listing.getId()) || listing.isFavorite()))
                 .toList();
     }
 
+    /**
+     * {@link #fetchAll} 的流式版本：逐条交给 sink 输出，内存中只保留当前一块 Listing。
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(User user, Consumer<? super ListingResponse> sink) {
+        Set<UUID> favoriteIds = favoriteListingIds(user);
+        try (Stream<Listing> listings = listingRepository.streamAllByOrderByCreatedAtDesc()) {
+            entityStreams.forEachChunk(listings, chunk -> chunk.forEach(listing -> sink.accept(toResponse(
+                    listing, favoriteIds.contains(listing.getId()) || listing.isFavorite()))));
+        }
+    }
+
+    /**
+     * 游标分页查询 Listing，按 created_at、id 倒序，支持成色、交易方式、价格区间与所在地筛选。
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ListingResponse> fetchPage(User user, ListingFeedQuery query) {
+        int limit = KeysetCursor.pageSize(query.limit());
+        KeysetCursor cursor = KeysetCursor.decode(query.cursor());
+        // 多取一条用于判断是否还有下一页，避免额外的 count 查询。
+        List<Listing> rows = listingRepository.findFeedPage(
+                StringUtils.hasText(query.condition()) ? parseCondition(query.condition()) : null,
+                StringUtils.hasText(query.tradeOption()) ? parseTradeOption(query.tradeOption()) : null,
+                query.minPrice(),
+                query.maxPrice(),
+                StringUtils.hasText(query.location()) ? query.location().trim() : null,
+                cursor != null ? cursor.timestamp() : null,
+                cursor != null ? cursor.id() : null,
+                PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<Listing> page = hasMore ? rows.subList(0, limit) : rows;
+        Set<UUID> favoriteIds = favoriteListingIds(user);
+        List<ListingResponse> items = page.stream()
+                .map(listing -> toResponse(
+                        listing, favoriteIds.contains(listing.getId()) || listing.isFavorite()))
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            Listing last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    /**
+     * 全文检索标题、描述与所在地，按相关度排序分页；命中的 ID 由倒排索引给出，再一次性回表加载。
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ListingResponse> search(User user, String query, String cursor, int limit) {
+        if (!StringUtils.hasText(query)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Query must not be blank");
+        }
+        int pageSize = KeysetCursor.pageSize(limit);
+        int offset = decodeOffset(cursor);
+        ListingSearchIndex.SearchHits hits = searchIndex.search(query, offset, pageSize);
+        if (hits.ids().isEmpty()) {
+            return new PageResponse<>(List.of(), null);
+        }
+        Map<UUID, Listing> byId = listingRepository.findByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        Set<UUID> favoriteIds = favoriteListingIds(user);
+        List<ListingResponse> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(listing -> toResponse(
+                        listing, favoriteIds.contains(listing.getId()) || listing.isFavorite()))
+                .toList();
+        return new PageResponse<>(items, hits.hasMore() ? encodeOffset(offset + pageSize) : null);
+    }
+
+    /**
+     * 附近模式：按与给定坐标（或当前用户坐标）的距离升序分页，只返回半径内带坐标的 Listing。
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ListingResponse> fetchNear(User user, ListingNearQuery query) {
+        double[] origin = parseOrigin(user, query.near());
+        double radiusKm = query.radiusKm() != null ? query.radiusKm() : DEFAULT_RADIUS_KM;
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid radius_km value");
+        }
+        int limit = KeysetCursor.pageSize(query.limit());
+        List<ListingGeoIndex.GeoHit> hits = geoIndex.near(
+                origin[0], origin[1], radiusKm, DistanceCursor.decode(query.cursor()), limit + 1);
+        boolean hasMore = hits.size() > limit;
+        List<ListingGeoIndex.GeoHit> page = hasMore ? hits.subList(0, limit) : hits;
+        if (page.isEmpty()) {
+            return new PageResponse<>(List.of(), null);
+        }
+        Map<UUID, Listing> byId = listingRepository.findByIdIn(page.stream().map(ListingGeoIndex.GeoHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        Set<UUID> favoriteIds = favoriteListingIds(user);
+        List<ListingResponse> items = page.stream()
+                .filter(hit -> byId.containsKey(hit.id()))
+                .map(hit -> {
+                    Listing listing = byId.get(hit.id());
+                    return toResponse(
+                            listing,
+                            favoriteIds.contains(listing.getId()) || listing.isFavorite(),
+                            Math.round(hit.distanceKm() * 100) / 100.0);
+                })
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            ListingGeoIndex.GeoHit last = page.get(page.size() - 1);
+            nextCursor = new DistanceCursor(last.distanceKm(), last.id()).encode();
+        }
+        return new PageResponse<>(items, nextCursor);
+    }
+
     /**
      * 创建新的雪板 Listing，自动绑定当前登录用户为卖家。
      */
     @Transactional
     public ListingResponse create(User seller, CreateListingRequest request) {
+        Listing saved = listingRepository.save(newListing(seller, request));
+        searchIndex.indexAfterCommit(saved);
+        geoIndex.indexAfterCommit(saved);
+        changeLog.upsert(SyncEntityType.LISTING, saved.getId());
+        return toResponse(saved, request.isFavorite());
+    }
+
+    /**
+     * 把发布表单映射为未保存的 Listing，枚举或坐标不合法时抛出 422；批量导入复用同一套规则。
+     */
+    Listing newListing(User seller, CreateListingRequest request) {
         // CreateListingRequest 对应前端发布表单字段，保持逐一映射。
         Listing listing = new Listing(
                 request.title(),
@@ -74,11 +220,31 @@ public class ListingService {
                 request.isFavorite(),
                 request.imageUrl(),
                 seller);
-        Listing saved = listingRepository.save(listing);
-        return toResponse(saved, request.isFavorite());
+        if ((request.latitude() == null) != (request.longitude() == null)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNPROCESSABLE_ENTITY, "latitude and longitude must be provided together");
+        }
+        listing.setCoordinates(request.latitude(), request.longitude());
+        return listing;
+    }
+
+    /**
+     * 按 ID 批量加载 Listing 响应，不存在的 ID 直接跳过，供增量同步使用。
+     */
+    @Transactional(readOnly = true)
+    public List<ListingResponse> listingsByIds(User user, Collection<UUID> ids) {
+        Set<UUID> favoriteIds = favoriteListingIds(user);
+        return listingRepository.findByIdIn(ids).stream()
+                .map(listing -> toResponse(
+                        listing, favoriteIds.contains(listing.getId()) || listing.isFavorite()))
+                .toList();
     }
 
     public ListingResponse toResponse(Listing listing, boolean favorite) {
+        return toResponse(listing, favorite, null);
+    }
+
+    private ListingResponse toResponse(Listing listing, boolean favorite, Double distanceKm) {
         AuthResponse.UserPayload sellerPayload = authService.toPayload(listing.getSeller());
         // Swift 端直接映射该结构到 ListingViewModel，因此字段名/含义保持 1:1。
         return new ListingResponse(
@@ -95,17 +261,27 @@ public class ListingService {
                         sellerPayload.userId(),
                         sellerPayload.displayName(),
                         sellerPayload.rating(),
-                        sellerPayload.dealsCount()));
+                        sellerPayload.dealsCount()),
+                listing.getLatitude(),
+                listing.getLongitude(),
+                distanceKm);
+    }
+
+    /**
+     * 当前用户收藏的 Listing ID 集合，未登录时为空。
+     */
+    public Set<UUID> favoriteListingIds(User user) {
+        if (user == null) {
+            return Set.of();
+        }
+        return favoriteIdCache.get(user.getId());
     }
 
     public boolean isFavoriteForUser(Listing listing, User user) {
         if (user == null) {
             return listing.isFavorite();
         }
-        return favoriteRepository
-                .findByUserAndListing(user, listing)
-                .filter(favorite -> !favorite.isArchived())
-                .isPresent();
+        return favoriteIdCache.get(user.getId()).contains(listing.getId());
     }
 
     private ListingCondition parseCondition(String value) {
@@ -132,6 +308,59 @@ public class ListingService {
         }
     }
 
+    /**
+     * 解析附近查询的原点："lat,lon" 或 "me"（当前用户保存的坐标）。
+     */
+    private static double[] parseOrigin(User user, String near) {
+        if ("me".equalsIgnoreCase(near.trim())) {
+            if (user == null || user.getLatitude() == null || user.getLongitude() == null) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "User location is not set");
+            }
+            return new double[] {user.getLatitude(), user.getLongitude()};
+        }
+        String[] parts = near.split(",");
+        try {
+            if (parts.length != 2) {
+                throw new NumberFormatException();
+            }
+            double latitude = Double.parseDouble(parts[0].trim());
+            double longitude = Double.parseDouble(parts[1].trim());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                throw new NumberFormatException();
+            }
+            return new double[] {latitude, longitude};
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid near value");
+        }
+    }
+
+    /**
+     * 搜索结果按相关度排序，无法用键集游标，游标中编码的是结果偏移量。
+     */
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("o:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("o:")) {
+                throw new IllegalArgumentException();
+            }
+            int offset = Integer.parseInt(decoded.substring(2));
+            if (offset < 0) {
+                throw new IllegalArgumentException();
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid cursor");
+        }
+    }
+
     private String toStringId(UUID id) {
         return id != null ? id.toString() : null;
     }
@@ -3,17 +3,34 @@ package com.codex.backend.service;
 import com.codex.backend.domain.listing.Listing;
 import com.codex.backend.domain.message.Message;
 import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.sync.SyncEntityType;
 import com.codex.backend.domain.user.User;
 import com.codex.backend.repository.ListingRepository;
 import com.codex.backend.repository.MessageRepository;
 import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.repository.projection.ThreadKey;
+import com.codex.backend.repository.projection.ThreadSummaryView;
 import com.codex.backend.web.dto.AuthResponse;
 import com.codex.backend.web.dto.ListingResponse;
 import com.codex.backend.web.dto.message.CreateMessageThreadRequest;
+import com.codex.backend.web.dto.message.MessagePushEvent;
+import com.codex.backend.web.dto.message.MessageSentResponse;
 import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.message.MessageThreadSummaryResponse;
 import com.codex.backend.web.dto.message.SendMessageRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,18 +47,27 @@ public class MessageService {
     private final ListingRepository listingRepository;
     private final ListingService listingService;
     private final AuthService authService;
+    private final ChangeLog changeLog;
+    private final ChatEventHub chatEventHub;
+    private final EntityStreams entityStreams;
 
     public MessageService(
             MessageThreadRepository messageThreadRepository,
             MessageRepository messageRepository,
             ListingRepository listingRepository,
             ListingService listingService,
-            AuthService authService) {
+            AuthService authService,
+            ChangeLog changeLog,
+            ChatEventHub chatEventHub,
+            EntityStreams entityStreams) {
         this.messageThreadRepository = messageThreadRepository;
         this.messageRepository = messageRepository;
         this.listingRepository = listingRepository;
         this.listingService = listingService;
         this.authService = authService;
+        this.changeLog = changeLog;
+        this.chatEventHub = chatEventHub;
+        this.entityStreams = entityStreams;
     }
 
     /**
@@ -50,29 +76,152 @@ public class MessageService {
     @Transactional(readOnly = true)
     public List<MessageThreadResponse> listThreads(User user) {
         // MarketplaceViewModel 会按照 updated_at 值倒序刷新站内信列表，这里保持相同排序。
-        return messageThreadRepository
-                .findByBuyerOrSellerOrderByUpdatedAtDesc(user, user)
-                .stream()
-                .map(thread -> toResponse(thread, user))
+        List<MessageThread> threads = messageThreadRepository.findByParticipantOrderByUpdatedAtDesc(user);
+        Set<UUID> favoriteIds = listingService.favoriteListingIds(user);
+        return threads.stream()
+                .map(thread -> toResponse(thread, favoriteIds.contains(thread.getListing().getId())))
+                .toList();
+    }
+
+    /**
+     * {@link #listThreads} 的流式版本：先流式归并两侧会话主键，再按块回表加载完整会话逐条交给 sink。
+     */
+    @Transactional(readOnly = true)
+    public void streamThreads(User user, Consumer<? super MessageThreadResponse> sink) {
+        Set<UUID> favoriteIds = listingService.favoriteListingIds(user);
+        try (Stream<ThreadKey> keys = messageThreadRepository.streamKeysByParticipant(user)) {
+            entityStreams.forEachChunk(keys, chunk -> {
+                Map<UUID, MessageThread> threads = messageThreadRepository
+                        .findByIdInAndParticipant(chunk.stream().map(ThreadKey::id).toList(), user)
+                        .stream()
+                        .collect(Collectors.toMap(MessageThread::getId, Function.identity()));
+                for (ThreadKey key : chunk) {
+                    MessageThread thread = threads.get(key.id());
+                    if (thread != null) {
+                        sink.accept(toResponse(thread, favoriteIds.contains(thread.getListing().getId())));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 按 ID 批量加载当前用户参与的会话，供增量同步使用。
+     */
+    @Transactional(readOnly = true)
+    public List<MessageThreadResponse> threadsByIds(User user, Collection<UUID> threadIds) {
+        Set<UUID> favoriteIds = listingService.favoriteListingIds(user);
+        return messageThreadRepository.findByIdInAndParticipant(threadIds, user).stream()
+                .map(thread -> toResponse(thread, favoriteIds.contains(thread.getListing().getId())))
                 .toList();
     }
 
     /**
-     * 根据 ID 获取具体会话。
+     * 收件箱摘要模式：买家、卖家两侧各一条聚合查询返回最后一条消息、未读数与 Listing 缩略图，耗时与会话长度无关。
      */
     @Transactional(readOnly = true)
+    public List<MessageThreadSummaryResponse> listThreadSummaries(User user) {
+        return messageThreadRepository.findSummariesByParticipant(user).stream()
+                .map(this::toSummary)
+                .toList();
+    }
+
+    /**
+     * 根据 ID 获取具体会话，有未读消息时把当前用户的已读时间推进到现在。
+     */
+    @Transactional
     public MessageThreadResponse getThread(User user, UUID threadId) {
         MessageThread thread = messageThreadRepository
-                .findByIdAndBuyerOrSeller(threadId, user, user)
+                .findByIdAndParticipant(threadId, user)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread not found"));
+        List<Message> messages = thread.getMessages();
+        markReadIfBehind(thread, user, messages.isEmpty() ? null : messages.get(messages.size() - 1).getCreatedAt());
         return toResponse(thread, user);
     }
 
+    /**
+     * 分页查看会话历史：`before` 向前翻页，`after` 增量拉取新消息，两者都不传时返回最新一页。
+     * 窗口内消息始终按时间正序输出，与完整模式一致。
+     */
+    @Transactional
+    public MessageThreadResponse getThreadPage(User user, UUID threadId, String before, String after, int limit) {
+        if (before != null && after != null) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Use either before or after");
+        }
+        MessageThread thread = messageThreadRepository
+                .findByIdAndParticipant(threadId, user)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread not found"));
+        int size = KeysetCursor.pageSize(limit);
+        KeysetCursor afterCursor = KeysetCursor.decode(after);
+        List<Message> window;
+        String olderCursor = null;
+        if (afterCursor != null) {
+            List<Message> rows = messageRepository.findWindowAfter(
+                    thread, afterCursor.timestamp(), afterCursor.id(), PageRequest.of(0, size));
+            window = rows;
+            if (!rows.isEmpty()) {
+                olderCursor = cursorOf(rows.get(0));
+            }
+        } else {
+            KeysetCursor beforeCursor = KeysetCursor.decode(before);
+            List<Message> rows = messageRepository.findWindowBefore(
+                    thread,
+                    beforeCursor != null ? beforeCursor.timestamp() : null,
+                    beforeCursor != null ? beforeCursor.id() : null,
+                    PageRequest.of(0, size + 1));
+            boolean hasOlder = rows.size() > size;
+            List<Message> page = new ArrayList<>(hasOlder ? rows.subList(0, size) : rows);
+            Collections.reverse(page);
+            window = page;
+            if (hasOlder) {
+                olderCursor = cursorOf(page.get(0));
+            }
+        }
+        String newerCursor = window.isEmpty() ? after : cursorOf(window.get(window.size() - 1));
+        markReadIfBehind(thread, user, messageRepository.findLatestCreatedAt(thread));
+        return toResponse(
+                thread,
+                listingService.isFavoriteForUser(thread.getListing(), user),
+                window,
+                olderCursor,
+                newerCursor);
+    }
+
     /**
      * 新建与卖家的会话并发送第一条消息。
      */
     @Transactional
     public MessageThreadResponse createThread(User buyer, CreateMessageThreadRequest request) {
+        Message message = postFirstMessage(buyer, request);
+        return toResponse(message.getThread(), buyer);
+    }
+
+    /**
+     * 精简模式的新建会话：只返回新消息与会话更新时间。
+     */
+    @Transactional
+    public MessageSentResponse createThreadCompact(User buyer, CreateMessageThreadRequest request) {
+        return toSentResponse(postFirstMessage(buyer, request));
+    }
+
+    /**
+     * 在指定线程发送消息。
+     */
+    @Transactional
+    public MessageThreadResponse sendMessage(User sender, UUID threadId, SendMessageRequest request) {
+        Message saved = postMessage(sender, threadId, request);
+        return toResponse(saved.getThread(), sender);
+    }
+
+    /**
+     * 精简模式的发送消息：不重新渲染整段会话，响应体积为 O(1)。
+     */
+    @Transactional
+    public MessageSentResponse sendMessageCompact(User sender, UUID threadId, SendMessageRequest request) {
+        return toSentResponse(postMessage(sender, threadId, request));
+    }
+
+    private Message postFirstMessage(User buyer, CreateMessageThreadRequest request) {
         UUID listingId;
         try {
             listingId = UUID.fromString(request.listingId());
@@ -82,57 +231,83 @@ public class MessageService {
         Listing listing = listingRepository
                 .findById(listingId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Listing not found"));
-        if (listing.getSeller().equals(buyer)) {
+        User seller = listing.getSeller();
+        if (seller.getId().equals(buyer.getId())) {
             throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot message yourself");
         }
         // iOS 端对于同一个 Listing 仅维护一条买家和卖家的会话，这里沿用该策略复用旧线程。
         MessageThread thread = messageThreadRepository
-                .findByBuyerOrSellerOrderByUpdatedAtDesc(buyer, buyer)
-                .stream()
-                .filter(existing -> existing.getListing().equals(listing) && existing.getBuyer().equals(buyer))
-                .findFirst()
-                .orElseGet(() -> messageThreadRepository.save(new MessageThread(
-                        listing,
-                        listing.getSeller(),
-                        buyer,
-                        listing.getTitle())));
+                .findByListingAndBuyerAndSeller(listing, buyer, seller)
+                .orElseGet(() -> openThread(listing, seller, buyer));
         Message message = messageRepository.save(new Message(thread, buyer, request.message()));
         thread.getMessages().add(message);
         thread.touch();
         // 持久化最新的 updated_at，前端会根据该字段刷新站内信列表排序。
         messageThreadRepository.save(thread);
-        return toResponse(thread, buyer);
+        markRead(thread, buyer);
+        changeLog.upsert(SyncEntityType.THREAD, thread.getId(), buyer.getId(), seller.getId());
+        push(message);
+        return message;
     }
 
     /**
-     * 在指定线程发送消息。
+     * 插入或获取会话，全程使用当前事务的连接。
+     *
+     * <p>先锁住 Listing 行，同一 Listing 上并发的第一条消息依次执行；排在后面的请求拿到锁时前一个已提交，
+     * 加锁读不受 REPEATABLE READ 快照影响，能直接读到刚创建的会话，不会再撞唯一约束。
      */
-    @Transactional
-    public MessageThreadResponse sendMessage(User sender, UUID threadId, SendMessageRequest request) {
+    private MessageThread openThread(Listing listing, User seller, User buyer) {
+        listingRepository.findForUpdate(listing.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Listing not found"));
+        return messageThreadRepository
+                .findForUpdate(listing, buyer, seller)
+                .orElseGet(() -> messageThreadRepository.save(
+                        new MessageThread(listing, seller, buyer, listing.getTitle())));
+    }
+
+    private Message postMessage(User sender, UUID threadId, SendMessageRequest request) {
         MessageThread thread = messageThreadRepository
-                .findByIdAndBuyerOrSeller(threadId, sender, sender)
+                .findByIdAndParticipant(threadId, sender)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread not found"));
         Message saved = messageRepository.save(new Message(thread, sender, request.content()));
         thread.getMessages().add(saved);
         thread.touch();
         // 同步更新会话的更新时间，确保与 iOS 端的最新消息排序保持一致。
         messageThreadRepository.save(thread);
-        return toResponse(thread, sender);
+        markRead(thread, sender);
+        changeLog.upsert(
+                SyncEntityType.THREAD, thread.getId(), thread.getBuyer().getId(), thread.getSeller().getId());
+        push(saved);
+        return saved;
+    }
+
+    /**
+     * 事务提交后把新消息推送给会话双方的在线连接（包括发送者的其他设备）。
+     */
+    private void push(Message message) {
+        MessageThread thread = message.getThread();
+        chatEventHub.publishAfterCommit(
+                List.of(thread.getBuyer().getId(), thread.getSeller().getId()),
+                "message",
+                new MessagePushEvent(thread.getId().toString(), toMessageResponse(message)));
     }
 
     private MessageThreadResponse toResponse(MessageThread thread, User currentUser) {
-        ListingResponse listing = listingService.toResponse(
-                thread.getListing(),
-                listingService.isFavoriteForUser(thread.getListing(), currentUser));
+        return toResponse(thread, listingService.isFavoriteForUser(thread.getListing(), currentUser));
+    }
+
+    private MessageThreadResponse toResponse(MessageThread thread, boolean favorite) {
+        // Swift `ThreadDetailView` 直接渲染消息数组，保持原始顺序与字段命名。
+        return toResponse(thread, favorite, thread.getMessages(), null, null);
+    }
+
+    private MessageThreadResponse toResponse(
+            MessageThread thread, boolean favorite, List<Message> window, String olderCursor, String newerCursor) {
+        ListingResponse listing = listingService.toResponse(thread.getListing(), favorite);
         MessageThreadResponse.ParticipantResponse buyer = toParticipant(thread.getBuyer());
         MessageThreadResponse.ParticipantResponse seller = toParticipant(thread.getSeller());
-        List<MessageThreadResponse.MessageResponse> messages = thread.getMessages().stream()
-                // Swift `ThreadDetailView` 直接渲染消息数组，保持原始顺序与字段命名。
-                .map(message -> new MessageThreadResponse.MessageResponse(
-                        message.getId().toString(),
-                        message.getSender().getId().toString(),
-                        message.getContent(),
-                        message.getSentAt()))
+        List<MessageThreadResponse.MessageResponse> messages = window.stream()
+                .map(this::toMessageResponse)
                 .toList();
         return new MessageThreadResponse(
                 thread.getId().toString(),
@@ -142,7 +317,73 @@ public class MessageService {
                 messages,
                 0,
                 thread.isArchived(),
-                thread.getUpdatedAt());
+                thread.getUpdatedAt(),
+                olderCursor,
+                newerCursor);
+    }
+
+    private MessageSentResponse toSentResponse(Message message) {
+        MessageThread thread = message.getThread();
+        return new MessageSentResponse(thread.getId().toString(), toMessageResponse(message), thread.getUpdatedAt());
+    }
+
+    private MessageThreadResponse.MessageResponse toMessageResponse(Message message) {
+        return new MessageThreadResponse.MessageResponse(
+                message.getId().toString(),
+                message.getSender().getId().toString(),
+                message.getContent(),
+                message.getSentAt());
+    }
+
+    private static String cursorOf(Message message) {
+        return new KeysetCursor(message.getCreatedAt(), message.getId()).encode();
+    }
+
+    /**
+     * 查看会话时只在已读时间落后于最新消息时才写库，重复查看不再产生 UPDATE。
+     */
+    private void markReadIfBehind(MessageThread thread, User user, Instant latestMessageAt) {
+        Instant readAt = thread.getBuyer().getId().equals(user.getId())
+                ? thread.getBuyerLastReadAt()
+                : thread.getSellerLastReadAt();
+        if (latestMessageAt == null || (readAt != null && !readAt.isBefore(latestMessageAt))) {
+            return;
+        }
+        markRead(thread, user);
+    }
+
+    private void markRead(MessageThread thread, User user) {
+        Instant now = Instant.now();
+        if (thread.getBuyer().getId().equals(user.getId())) {
+            messageThreadRepository.markReadByBuyer(thread.getId(), now);
+        } else {
+            messageThreadRepository.markReadBySeller(thread.getId(), now);
+        }
+    }
+
+    private MessageThreadSummaryResponse toSummary(ThreadSummaryView row) {
+        MessageThreadResponse.MessageResponse lastMessage = row.lastMessageId() == null
+                ? null
+                : new MessageThreadResponse.MessageResponse(
+                        row.lastMessageId().toString(),
+                        row.lastSenderId().toString(),
+                        row.lastMessageContent(),
+                        row.lastMessageSentAt());
+        return new MessageThreadSummaryResponse(
+                row.threadId().toString(),
+                new MessageThreadSummaryResponse.ListingThumbnail(
+                        row.listingId().toString(), row.listingTitle(), row.listingImageUrl()),
+                new MessageThreadResponse.ParticipantResponse(
+                        row.buyerId().toString(), row.buyerDisplayName(), row.buyerRating(), row.buyerDealsCount()),
+                new MessageThreadResponse.ParticipantResponse(
+                        row.sellerId().toString(),
+                        row.sellerDisplayName(),
+                        row.sellerRating(),
+                        row.sellerDealsCount()),
+                lastMessage,
+                row.unreadCount() != null ? row.unreadCount() : 0L,
+                Boolean.TRUE.equals(row.archived()),
+                row.updatedAt());
     }
 
     private MessageThreadResponse.ParticipantResponse toParticipant(User user) {
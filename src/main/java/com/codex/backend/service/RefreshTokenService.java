@@ -0,0 +1,120 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.JwtProperties;
+import com.codex.backend.domain.user.RefreshToken;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.RefreshTokenRepository;
+import com.codex.backend.security.SessionRevocations;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 刷新令牌业务：签发、轮换与注销。
+ *
+ * <p>令牌本身是随机串，数据库只存 HMAC 摘要；刷新只需一次 HMAC 与一次按摘要查询，不涉及 BCrypt。
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SessionRevocations sessionRevocations;
+    private final SecretKeySpec hmacKey;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            SessionRevocations sessionRevocations,
+            JwtProperties properties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.sessionRevocations = sessionRevocations;
+        this.hmacKey = new SecretKeySpec(properties.getSecret().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.lifetime = Duration.parse(properties.getRefreshExpiration());
+    }
+
+    /**
+     * 登录或注册时开启新的会话，同时清理该用户已过期的刷新令牌。
+     */
+    @Transactional
+    public IssuedToken issue(User user) {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpired(user, now);
+        return store(user, UUID.randomUUID(), now);
+    }
+
+    /**
+     * 用旧令牌换取同一会话的新令牌。已轮换过的令牌再次出现视为泄露，整组作废。
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public IssuedToken rotate(String rawToken) {
+        Instant now = Instant.now();
+        RefreshToken token = refreshTokenRepository
+                .findForRotation(hash(rawToken))
+                .orElseThrow(RefreshTokenService::invalid);
+        if (token.getRevokedAt() != null || !token.getExpiresAt().isAfter(now)) {
+            throw invalid();
+        }
+        if (token.getUsedAt() != null) {
+            revokeFamily(token.getFamilyId(), now);
+            throw invalid();
+        }
+        token.markUsed(now);
+        return store(token.getUser(), token.getFamilyId(), now);
+    }
+
+    /**
+     * 注销会话：作废该会话的全部刷新令牌，并让已签发的访问令牌在本节点立即失效。
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository
+                .findByTokenHash(hash(rawToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    private void revokeFamily(UUID familyId, Instant now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        sessionRevocations.revoke(familyId);
+    }
+
+    private IssuedToken store(User user, UUID familyId, Instant now) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(user, hash(rawToken), familyId, now.plus(lifetime)));
+        return new IssuedToken(user, familyId, rawToken);
+    }
+
+    private String hash(String rawToken) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            byte[] digest = mac.doFinal(rawToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 not available", ex);
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    }
+
+    /**
+     * 新签发的刷新令牌；rawToken 只在此处出现一次，随后仅以摘要形式存储。
+     */
+    public record IssuedToken(User user, UUID sessionId, String rawToken) {}
+}
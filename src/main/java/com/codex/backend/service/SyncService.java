@@ -0,0 +1,165 @@
+package com.codex.backend.service;
+
+import com.codex.backend.domain.sync.ChangeLogEntry;
+import com.codex.backend.domain.sync.SyncEntityType;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ChangeLogRepository;
+import com.codex.backend.web.dto.FavoriteResponse;
+import com.codex.backend.web.dto.ListingResponse;
+import com.codex.backend.web.dto.SyncResponse;
+import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.trip.TripResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 增量同步：读取水位之后的变更日志，同一对象只取最后一次变更，再按 ID 批量回表组装当前状态。
+ *
+ * <p>开销只与水位之后的变更数有关，与 Listing、会话等数据总量无关。
+ */
+@Service
+public class SyncService {
+
+    private static final int DEFAULT_LIMIT = 200;
+    private static final int MAX_LIMIT = 1_000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLog changeLog;
+    private final ListingService listingService;
+    private final FavoriteService favoriteService;
+    private final MessageService messageService;
+    private final TripService tripService;
+
+    public SyncService(
+            ChangeLogRepository changeLogRepository,
+            ChangeLog changeLog,
+            ListingService listingService,
+            FavoriteService favoriteService,
+            MessageService messageService,
+            TripService tripService) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeLog = changeLog;
+        this.listingService = listingService;
+        this.favoriteService = favoriteService;
+        this.messageService = messageService;
+        this.tripService = tripService;
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(User user, String since, Integer limit) {
+        // 先读 head 且只读到 head：更大的 seq 可能排在仍未提交的变更之后，留到下次同步。
+        long head = changeLog.head();
+        Long after = parseSince(since);
+        if (after == null || changeLog.requiresReset(after, head)) {
+            return SyncResponse.reset(Long.toString(head));
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<ChangeLogEntry> rows =
+                changeLogRepository.findVisibleAfter(after, head, user.getId(), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ChangeLogEntry> page = hasMore ? rows.subList(0, pageSize) : rows;
+        long lastSeq = page.isEmpty() ? after : page.get(page.size() - 1).getSeq();
+        // 没有更多可见变更时直接推进到 head，跳过其他用户的私有变更，下次不必重新扫描。
+        long nextSince = hasMore ? lastSeq : Math.max(lastSeq, head);
+
+        Map<SyncEntityType, Map<UUID, Boolean>> latest = new EnumMap<>(SyncEntityType.class);
+        for (ChangeLogEntry entry : page) {
+            latest.computeIfAbsent(entry.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(entry.getEntityId(), entry.isDeleted());
+        }
+        List<String> deletedListings = new ArrayList<>();
+        List<String> deletedFavorites = new ArrayList<>();
+        List<String> deletedThreads = new ArrayList<>();
+        List<String> deletedTrips = new ArrayList<>();
+        List<ListingResponse> listings = load(
+                latest.get(SyncEntityType.LISTING),
+                ids -> listingService.listingsByIds(user, ids),
+                ListingResponse::listingId,
+                deletedListings);
+        List<FavoriteResponse> favorites = load(
+                latest.get(SyncEntityType.FAVORITE),
+                ids -> favoriteService.favoritesByListingIds(user, ids),
+                favorite -> favorite.listing().listingId(),
+                deletedFavorites);
+        List<MessageThreadResponse> threads = load(
+                latest.get(SyncEntityType.THREAD),
+                ids -> messageService.threadsByIds(user, ids),
+                MessageThreadResponse::threadId,
+                deletedThreads);
+        List<TripResponse> trips = load(
+                latest.get(SyncEntityType.TRIP),
+                tripService::tripsByIds,
+                TripResponse::tripId,
+                deletedTrips);
+        return new SyncResponse(
+                Long.toString(nextSince),
+                false,
+                hasMore,
+                listings,
+                favorites,
+                threads,
+                trips,
+                new SyncResponse.Deleted(deletedListings, deletedFavorites, deletedThreads, deletedTrips));
+    }
+
+    /**
+     * 回表加载仍存在的对象；日志里是新增但已查不到的对象（被删除或已无权限）同样作为删除返回。
+     */
+    private static <T> List<T> load(
+            Map<UUID, Boolean> changes,
+            Function<Collection<UUID>, List<T>> loader,
+            Function<T, String> idOf,
+            List<String> tombstones) {
+        if (changes == null) {
+            return List.of();
+        }
+        Set<UUID> upserts = new HashSet<>();
+        changes.forEach((id, deleted) -> {
+            if (deleted) {
+                tombstones.add(id.toString());
+            } else {
+                upserts.add(id);
+            }
+        });
+        if (upserts.isEmpty()) {
+            return List.of();
+        }
+        List<T> items = loader.apply(upserts);
+        Set<String> found = new HashSet<>();
+        items.forEach(item -> found.add(idOf.apply(item)));
+        upserts.stream()
+                .map(UUID::toString)
+                .filter(id -> !found.contains(id))
+                .forEach(tombstones::add);
+        return items;
+    }
+
+    private static Long parseSince(String since) {
+        if (!StringUtils.hasText(since)) {
+            return null;
+        }
+        try {
+            long value = Long.parseLong(since.trim());
+            if (value < 0) {
+                throw new NumberFormatException();
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid since token");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.codex.backend.service;
 
+import com.codex.backend.domain.sync.SyncEntityType;
 import com.codex.backend.domain.trip.Trip;
 import com.codex.backend.domain.trip.TripJoinRequest;
 import com.codex.backend.domain.trip.TripMessage;
@@ -12,17 +13,34 @@ import com.codex.backend.repository.TripJoinRequestRepository;
 import com.codex.backend.repository.TripMessageRepository;
 import com.codex.backend.repository.TripParticipantRepository;
 import com.codex.backend.repository.TripRepository;
+import com.codex.backend.repository.projection.CollectionVersion;
 import com.codex.backend.web.dto.AuthResponse;
+import com.codex.backend.web.dto.PageResponse;
 import com.codex.backend.web.dto.trip.CreateTripRequest;
 import com.codex.backend.web.dto.trip.SendTripMessageRequest;
 import com.codex.backend.web.dto.trip.TripJoinRequestCommand;
+import com.codex.backend.web.dto.trip.TripMessagePushEvent;
 import com.codex.backend.web.dto.trip.TripResponse;
-import java.util.Comparator;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -31,37 +49,161 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class TripService {
 
+    /** 不分页的旧版列表最多返回的行程数，更多结果需改用游标分页或流式模式。 */
+    static final int MAX_LIST_SIZE = 500;
+
     private final TripRepository tripRepository;
     private final TripParticipantRepository participantRepository;
     private final TripJoinRequestRepository joinRequestRepository;
     private final TripMessageRepository tripMessageRepository;
     private final AuthService authService;
+    private final ChangeLog changeLog;
+    private final ChatEventHub chatEventHub;
+    private final EntityStreams entityStreams;
 
     public TripService(
             TripRepository tripRepository,
             TripParticipantRepository participantRepository,
             TripJoinRequestRepository joinRequestRepository,
             TripMessageRepository tripMessageRepository,
-            AuthService authService) {
+            AuthService authService,
+            ChangeLog changeLog,
+            ChatEventHub chatEventHub,
+            EntityStreams entityStreams) {
         this.tripRepository = tripRepository;
         this.participantRepository = participantRepository;
         this.joinRequestRepository = joinRequestRepository;
         this.tripMessageRepository = tripMessageRepository;
         this.authService = authService;
+        this.changeLog = changeLog;
+        this.chatEventHub = chatEventHub;
+        this.entityStreams = entityStreams;
     }
 
     /**
-     * 查询全部行程数据，按开始时间排序。
+     * 查询时间窗口内的行程，按开始时间排序；未指定窗口与状态时只返回尚未结束的行程。
+     *
+     * <p>最多返回 {@link #MAX_LIST_SIZE} 条，按 {@link EntityStreams#CHUNK_SIZE} 分块组装，成员、报名与群聊查询的 IN 列表不随结果增长。
      */
     @Transactional(readOnly = true)
-    public List<TripResponse> listTrips() {
-        return tripRepository
-                .findAll()
-                .stream()
-                // 与前端的行程时间轴一致：按照开始时间升序排列。
-                .sorted(Comparator.comparing(Trip::getStartAt))
-                .map(this::toResponse)
-                .toList();
+    public List<TripResponse> listTrips(TripTimelineQuery query) {
+        // 与前端的行程时间轴一致：按照开始时间升序排列，排序直接下推到 SQL。
+        List<Trip> trips = findTimeline(query, null, PageRequest.of(0, MAX_LIST_SIZE));
+        List<TripResponse> responses = new ArrayList<>(trips.size());
+        for (int from = 0; from < trips.size(); from += EntityStreams.CHUNK_SIZE) {
+            int to = Math.min(from + EntityStreams.CHUNK_SIZE, trips.size());
+            responses.addAll(toResponses(trips.subList(from, to)));
+        }
+        return responses;
+    }
+
+    /**
+     * {@link #listTrips} 的流式版本：行程按块读取，每块的成员、报名与群聊各用一条查询加载后逐条交给 sink。
+     */
+    @Transactional(readOnly = true)
+    public void streamTrips(TripTimelineQuery query, Consumer<? super TripResponse> sink) {
+        TimelineFilter filter = timelineFilter(query);
+        try (Stream<Trip> trips = tripRepository.streamTimeline(
+                query.from(),
+                query.to(),
+                filter.endAfter(),
+                filter.anyStatus(),
+                filter.statuses(),
+                filter.destination())) {
+            entityStreams.forEachChunk(trips, chunk -> toResponses(chunk).forEach(sink));
+        }
+    }
+
+    /**
+     * 行程时间轴的游标分页版本，按 (start_at, id) 升序翻页。
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TripResponse> listTripPage(TripTimelineQuery query) {
+        int limit = KeysetCursor.pageSize(query.limit());
+        KeysetCursor cursor = KeysetCursor.decode(query.cursor());
+        List<Trip> rows = findTimeline(query, cursor, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<Trip> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Trip last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getStartAt(), last.getId()).encode();
+        }
+        return new PageResponse<>(toResponses(page), nextCursor);
+    }
+
+    /**
+     * 按 ID 批量加载行程响应，不存在的 ID 直接跳过，供增量同步使用。
+     */
+    @Transactional(readOnly = true)
+    public List<TripResponse> tripsByIds(Collection<UUID> tripIds) {
+        return toResponses(tripRepository.findByIdIn(tripIds));
+    }
+
+    /**
+     * 时间轴在给定筛选条件下的版本，供集合 ETag 使用；relatedLastModified 取响应中出现的成员与申请人资料的最近更新时间。
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersion timelineVersion(TripTimelineQuery query) {
+        TimelineFilter filter = timelineFilter(query);
+        CollectionVersion trips = tripRepository.findTimelineVersion(
+                query.from(), query.to(), filter.endAfter(), filter.anyStatus(), filter.statuses(), filter.destination());
+        Instant members = tripRepository.findTimelineMembersLastModified(
+                query.from(), query.to(), filter.endAfter(), filter.anyStatus(), filter.statuses(), filter.destination());
+        Instant applicants = tripRepository.findTimelinePendingApplicantsLastModified(
+                query.from(), query.to(), filter.endAfter(), filter.anyStatus(), filter.statuses(), filter.destination());
+        return trips.combine(new CollectionVersion(0L, null, members))
+                .combine(new CollectionVersion(0L, null, applicants));
+    }
+
+    private List<Trip> findTimeline(TripTimelineQuery query, KeysetCursor cursor, Pageable pageable) {
+        TimelineFilter filter = timelineFilter(query);
+        return tripRepository.findTimeline(
+                query.from(),
+                query.to(),
+                filter.endAfter(),
+                filter.anyStatus(),
+                filter.statuses(),
+                filter.destination(),
+                cursor != null ? cursor.timestamp() : null,
+                cursor != null ? cursor.id() : null,
+                pageable);
+    }
+
+    private TimelineFilter timelineFilter(TripTimelineQuery query) {
+        Set<TripStatus> statuses = parseStatuses(query.status());
+        boolean defaultWindow = query.from() == null && query.to() == null && statuses.isEmpty();
+        if (defaultWindow) {
+            // 默认只看即将开始与进行中的行程，历史行程需要显式指定窗口或状态。
+            statuses = EnumSet.of(TripStatus.PLANNED, TripStatus.UPCOMING, TripStatus.ACTIVE);
+        }
+        boolean anyStatus = statuses.isEmpty();
+        return new TimelineFilter(
+                defaultWindow ? Instant.now() : null,
+                anyStatus,
+                anyStatus ? EnumSet.allOf(TripStatus.class) : statuses,
+                StringUtils.hasText(query.destination()) ? query.destination().trim() : null);
+    }
+
+    private record TimelineFilter(
+            Instant endAfter, boolean anyStatus, Set<TripStatus> statuses, String destination) {}
+
+    private Set<TripStatus> parseStatuses(String value) {
+        Set<TripStatus> statuses = EnumSet.noneOf(TripStatus.class);
+        if (!StringUtils.hasText(value)) {
+            return statuses;
+        }
+        try {
+            for (String part : value.split(",")) {
+                TripStatus status = TripStatus.fromJson(part);
+                if (status != null) {
+                    statuses.add(status);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid status value");
+        }
+        return statuses;
     }
 
     /**
@@ -88,6 +230,7 @@ public class TripService {
         Trip saved = tripRepository.save(trip);
         TripParticipant organizerParticipant = participantRepository.save(new TripParticipant(saved, organizer, TripParticipantRole.ORGANIZER));
         saved.getParticipants().add(organizerParticipant);
+        changeLog.upsert(SyncEntityType.TRIP, saved.getId());
         // 组织者默认出现在行程参与者列表中，对应前端 SampleData.organizer。
         return toResponse(saved);
     }
@@ -111,6 +254,8 @@ public class TripService {
         TripJoinRequest request = new TripJoinRequest(trip, applicant, TripRequestStatus.PENDING, command.message());
         TripJoinRequest saved = joinRequestRepository.save(request);
         trip.getJoinRequests().add(saved);
+        trip.touch();
+        changeLog.upsert(SyncEntityType.TRIP, trip.getId());
         // 立即回传最新行程详情，便于前端刷新待审批列表。
         return toResponse(trip);
     }
@@ -143,6 +288,8 @@ public class TripService {
         if (!exists) {
             trip.getParticipants().add(participant);
         }
+        trip.touch();
+        changeLog.upsert(SyncEntityType.TRIP, trip.getId());
         // 返回最新行程信息，前端会将申请人移动到 participants 中展示。
         return toResponse(trip);
     }
@@ -161,8 +308,26 @@ public class TripService {
         }
         TripMessage message = tripMessageRepository.save(new TripMessage(trip, sender, request.content()));
         trip.getMessages().add(message);
+        trip.touch();
+        changeLog.upsert(SyncEntityType.TRIP, trip.getId());
         // 返回最新的行程详情，客户端会实时刷新聊天窗口。
-        return toResponse(trip);
+        TripResponse response = toResponse(trip);
+        push(response, message.getId().toString());
+        return response;
+    }
+
+    /**
+     * 事务提交后把群聊消息推送给组织者与全部成员的在线连接；成员与消息结构直接取自刚组装好的响应。
+     */
+    private void push(TripResponse response, String messageId) {
+        Set<UUID> recipients = new LinkedHashSet<>();
+        recipients.add(UUID.fromString(response.organizer().userId()));
+        response.participants().forEach(member -> recipients.add(UUID.fromString(member.userId())));
+        response.messages().stream()
+                .filter(message -> message.messageId().equals(messageId))
+                .findFirst()
+                .ifPresent(message -> chatEventHub.publishAfterCommit(
+                        recipients, "trip_message", new TripMessagePushEvent(response.tripId(), message)));
     }
 
     private boolean isParticipant(Trip trip, User user) {
@@ -171,17 +336,53 @@ public class TripService {
     }
 
     private TripResponse toResponse(Trip trip) {
+        return toResponses(List.of(trip)).get(0);
+    }
+
+    /**
+     * 批量组装行程响应：成员、待审批请求与群聊消息各用一条查询加载，查询次数与行程数、消息数无关。
+     */
+    private List<TripResponse> toResponses(List<Trip> trips) {
+        if (trips.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<TripParticipant>> participantsByTrip = participantRepository
+                .findByTripInOrderByCreatedAtAsc(trips)
+                .stream()
+                .collect(Collectors.groupingBy(participant -> participant.getTrip().getId()));
+        Map<UUID, List<TripJoinRequest>> pendingByTrip = joinRequestRepository
+                .findByTripInAndStatusOrderByCreatedAtAsc(trips, TripRequestStatus.PENDING)
+                .stream()
+                .collect(Collectors.groupingBy(request -> request.getTrip().getId()));
+        Map<UUID, List<TripMessage>> messagesByTrip = tripMessageRepository
+                .findByTripInOrderByCreatedAtAsc(trips)
+                .stream()
+                .collect(Collectors.groupingBy(message -> message.getTrip().getId()));
+        return trips.stream()
+                .map(trip -> toResponse(
+                        trip,
+                        participantsByTrip.getOrDefault(trip.getId(), List.of()),
+                        pendingByTrip.getOrDefault(trip.getId(), List.of()),
+                        messagesByTrip.getOrDefault(trip.getId(), List.of())))
+                .toList();
+    }
+
+    private TripResponse toResponse(
+            Trip trip,
+            List<TripParticipant> tripParticipants,
+            List<TripJoinRequest> pending,
+            List<TripMessage> tripMessages) {
+        UUID organizerId = trip.getOrganizer().getId();
         TripResponse.TripMemberResponse organizer = toMemberResponse(trip.getOrganizer(), TripParticipantRole.ORGANIZER);
-        List<TripResponse.TripMemberResponse> participants = participantRepository.findByTrip(trip).stream()
-                // iOS 端的 participants 列表不重复展示组织者，这里过滤并按加入时间排序。
-                .filter(participant -> !participant.getUser().equals(trip.getOrganizer()))
-                .sorted(Comparator.comparing(TripParticipant::getCreatedAt))
+        Map<UUID, TripParticipantRole> roles = new HashMap<>();
+        tripParticipants.forEach(participant -> roles.putIfAbsent(participant.getUser().getId(), participant.getRole()));
+        List<TripResponse.TripMemberResponse> participants = tripParticipants.stream()
+                // iOS 端的 participants 列表不重复展示组织者，查询已按加入时间排序。
+                .filter(participant -> !participant.getUser().getId().equals(organizerId))
                 .map(participant -> toMemberResponse(participant.getUser(), participant.getRole()))
                 .toList();
-        List<TripResponse.TripJoinRequestResponse> pendingRequests = trip.getJoinRequests().stream()
-                // 前端在待处理列表中依赖申请时间排序，这里按照 created_at 升序输出。
-                .filter(request -> request.getStatus() == TripRequestStatus.PENDING)
-                .sorted(Comparator.comparing(TripJoinRequest::getCreatedAt))
+        List<TripResponse.TripJoinRequestResponse> pendingRequests = pending.stream()
+                // 前端在待处理列表中依赖申请时间排序，查询已按 created_at 升序返回。
                 .map(request -> new TripResponse.TripJoinRequestResponse(
                         request.getId().toString(),
                         toMemberResponse(request.getApplicant(), TripParticipantRole.MEMBER),
@@ -189,11 +390,11 @@ public class TripService {
                         request.getMessage(),
                         request.getCreatedAt()))
                 .toList();
-        List<TripResponse.TripMessageResponse> messages = tripMessageRepository.findByTripOrderByCreatedAtAsc(trip).stream()
-                // 与前端的群聊时间线保持升序展示。
+        List<TripResponse.TripMessageResponse> messages = tripMessages.stream()
+                // 与前端的群聊时间线保持升序展示，发送者角色直接从已加载的成员中推断。
                 .map(message -> new TripResponse.TripMessageResponse(
                         message.getId().toString(),
-                        toMemberResponse(message.getSender(), determineRole(trip, message.getSender())),
+                        toMemberResponse(message.getSender(), determineRole(organizerId, roles, message.getSender())),
                         message.getContent(),
                         message.getSentAt()))
                 .toList();
@@ -222,13 +423,11 @@ public class TripService {
                 role != null ? role.toJson() : TripParticipantRole.MEMBER.toJson());
     }
 
-    private TripParticipantRole determineRole(Trip trip, User user) {
-        if (trip.getOrganizer().equals(user)) {
+    private TripParticipantRole determineRole(UUID organizerId, Map<UUID, TripParticipantRole> roles, User user) {
+        if (organizerId.equals(user.getId())) {
             return TripParticipantRole.ORGANIZER;
         }
-        return participantRepository
-                .findByTripAndUser(trip, user)
-                .map(TripParticipant::getRole)
-                .orElse(TripParticipantRole.MEMBER);
+        TripParticipantRole role = roles.get(user.getId());
+        return role != null ? role : TripParticipantRole.MEMBER;
     }
 }
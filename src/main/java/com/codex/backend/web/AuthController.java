@@ -5,13 +5,17 @@ import com.codex.backend.service.AuthService;
 import com.codex.backend.web.dto.AuthResponse;
 import com.codex.backend.web.dto.CurrentUserResponse;
 import com.codex.backend.web.dto.LoginRequest;
+import com.codex.backend.web.dto.RefreshRequest;
 import com.codex.backend.web.dto.RegisterRequest;
+import com.codex.backend.web.dto.UpdateLocationRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -45,6 +49,23 @@ public class AuthController {
         return authService.authenticate(request);
     }
 
+    /**
+     * 用刷新令牌续期，返回新的访问令牌与刷新令牌，旧刷新令牌随即失效。
+     */
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@Valid @RequestBody RefreshRequest request) {
+        return authService.refresh(request);
+    }
+
+    /**
+     * 注销当前会话，作废对应的刷新令牌。
+     */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@Valid @RequestBody RefreshRequest request) {
+        authService.logout(request);
+    }
+
     /**
      * 会话恢复接口：校验 JWT 后返回用户信息，字段结构与登录保持一致。
      */
@@ -53,6 +74,19 @@ public class AuthController {
         if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
-        return new CurrentUserResponse(authService.toPayload(principal.getUser()));
+        return new CurrentUserResponse(authService.currentUser(principal));
+    }
+
+    /**
+     * 更新当前用户的经纬度，之后可用 `near=me` 查询附近的雪板。
+     */
+    @PutMapping("/me/location")
+    public CurrentUserResponse updateLocation(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody UpdateLocationRequest request) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return new CurrentUserResponse(authService.updateLocation(principal, request));
     }
 }
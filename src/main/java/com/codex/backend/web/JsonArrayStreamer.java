@@ -0,0 +1,135 @@
+package com.codex.backend.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 把逐条产生的 DTO 直接写成响应中的 JSON 数组，输出格式与返回 {@code List} 时相同。
+ *
+ * <p>与普通接口一样按 {@code Accept} 协商编码：声明 CBOR 或 Smile 时写出对应的二进制数组，
+ * 使用与消息转换器相同的 ObjectMapper。
+ *
+ * <p>第一条数据到达前不写任何内容，业务校验失败仍可正常返回错误响应；输出中途出错时不会补齐结尾的
+ * {@code ]}，客户端会看到不完整的 JSON 而不是被截断却合法的数组。
+ */
+@Component
+public class JsonArrayStreamer {
+
+    /**
+     * 按优先顺序排列：{@code Accept} 中的某一项同时匹配多种格式（如 {@code *}{@code /*}）时取靠前的，即 JSON。
+     */
+    private final List<Format> formats;
+
+    public JsonArrayStreamer(
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.formats = List.of(
+                new Format(MediaType.APPLICATION_JSON, objectMapper),
+                new Format(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper()),
+                new Format(new MediaType("application", "x-jackson-smile"), smileConverter.getObjectMapper()));
+    }
+
+    /**
+     * producer 在当前线程内把每个元素交给传入的 sink，返回后数组结束。
+     */
+    public void write(WebRequest request, HttpServletResponse response, Consumer<Consumer<Object>> producer)
+            throws IOException {
+        Output output = new Output(negotiate(request.getHeader(HttpHeaders.ACCEPT)), response);
+        try {
+            producer.accept(output::append);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        output.finish();
+    }
+
+    private Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return formats.get(0);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return formats.get(0);
+        }
+        // 与 Spring MVC 的协商一致：先按质量值、再按具体程度排序。
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : formats) {
+                if (mediaType.includes(format.mediaType())) {
+                    return format;
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "No acceptable representation");
+    }
+
+    private record Format(MediaType mediaType, ObjectMapper objectMapper, ObjectWriter writer) {
+
+        Format(MediaType mediaType, ObjectMapper objectMapper) {
+            // 默认每写完一个值就 flush，逐条输出时会变成一条记录一次网络写；交给生成器与响应缓冲区攒批。
+            this(mediaType, objectMapper,
+                    objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+
+    private static final class Output {
+
+        private final Format format;
+        private final HttpServletResponse response;
+        private JsonGenerator generator;
+
+        private Output(Format format, HttpServletResponse response) {
+            this.format = format;
+            this.response = response;
+        }
+
+        void append(Object item) {
+            try {
+                start();
+                format.writer().writeValue(generator, item);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void finish() throws IOException {
+            start();
+            generator.writeEndArray();
+            generator.close();
+        }
+
+        private void start() throws IOException {
+            if (generator != null) {
+                return;
+            }
+            response.setContentType(format.mediaType().toString());
+            generator = format.objectMapper().getFactory().createGenerator(response.getOutputStream());
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartArray();
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package com.codex.backend.web;
 
 import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.CollectionVersions;
+import com.codex.backend.service.ListingImportService;
 import com.codex.backend.service.ListingService;
 import com.codex.backend.web.dto.CreateListingRequest;
+import com.codex.backend.web.dto.ListingFeedQuery;
+import com.codex.backend.web.dto.ListingImportResponse;
+import com.codex.backend.web.dto.ListingNearQuery;
 import com.codex.backend.web.dto.ListingResponse;
+import com.codex.backend.web.dto.PageResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -23,22 +36,105 @@ import org.springframework.web.server.ResponseStatusException;
 public class ListingController {
 
     private final ListingService listingService;
+    private final ListingImportService listingImportService;
+    private final CollectionVersions collectionVersions;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public ListingController(ListingService listingService) {
+    public ListingController(
+            ListingService listingService,
+            ListingImportService listingImportService,
+            CollectionVersions collectionVersions,
+            JsonArrayStreamer jsonArrayStreamer) {
         this.listingService = listingService;
+        this.listingImportService = listingImportService;
+        this.collectionVersions = collectionVersions;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     /**
-     * 获取全部雪板列表，字段与前端的 SampleData 完全对齐。
+     * 获取全部雪板列表，字段与前端的 SampleData 完全对齐；携带 If-None-Match 且未变化时返回 304。
      */
     @GetMapping
-    public List<ListingResponse> list(@AuthenticationPrincipal AuthenticatedUser principal) {
+    public List<ListingResponse> list(@AuthenticationPrincipal AuthenticatedUser principal, WebRequest webRequest) {
         if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
+        if (webRequest.checkNotModified(collectionVersions.listings(principal.getUser()))) {
+            return null;
+        }
         return listingService.fetchAll(principal.getUser());
     }
 
+    /**
+     * 流式模式：携带 `stream=true` 时边查边写，字段与排序同全量列表，适合后台导出等大结果集。
+     * 同时携带 `limit` 或 `near` 时按分页或附近模式处理。
+     */
+    @GetMapping(params = {"stream=true", "!limit", "!near"})
+    public void stream(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        if (webRequest.checkNotModified(collectionVersions.listings(principal.getUser()))) {
+            return;
+        }
+        jsonArrayStreamer.write(webRequest, response, sink -> listingService.streamAll(principal.getUser(), sink));
+    }
+
+    /**
+     * 游标分页模式：携带 `limit` 参数时启用，返回 `items` 与 `next_cursor`，旧版客户端不受影响。
+     */
+    @GetMapping(params = {"limit", "!near"})
+    public PageResponse<ListingResponse> page(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "condition", required = false) String condition,
+            @RequestParam(name = "trade_option", required = false) String tradeOption,
+            @RequestParam(name = "min_price", required = false) BigDecimal minPrice,
+            @RequestParam(name = "max_price", required = false) BigDecimal maxPrice,
+            @RequestParam(name = "location", required = false) String location) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return listingService.fetchPage(
+                principal.getUser(),
+                new ListingFeedQuery(condition, tradeOption, minPrice, maxPrice, location, cursor, limit));
+    }
+
+    /**
+     * 附近模式：携带 `near=lat,lon` 或 `near=me` 时启用，按距离升序分页，可选 `radius_km`（默认 50，最大 500）。
+     */
+    @GetMapping(params = "near")
+    public PageResponse<ListingResponse> near(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "near") String near,
+            @RequestParam(name = "radius_km", required = false) Double radiusKm,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return listingService.fetchNear(principal.getUser(), new ListingNearQuery(near, radiusKm, cursor, limit));
+    }
+
+    /**
+     * 全文检索：按关键词匹配标题、描述与所在地（支持中文），按相关度排序并分页。
+     */
+    @GetMapping("/search")
+    public PageResponse<ListingResponse> search(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return listingService.search(principal.getUser(), query, cursor, limit);
+    }
+
     /**
      * 发布雪板信息：自动根据 JWT 中的用户绑定 seller 信息。
      */
@@ -51,4 +147,28 @@ public class ListingController {
         }
         return listingService.create(principal.getUser(), request);
     }
+
+    /**
+     * 批量导入（CSV）：请求体按流分批写入，当前用户为全部 Listing 的卖家，返回导入条数与逐行错误。
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ListingImportResponse importCsv(
+            @AuthenticationPrincipal AuthenticatedUser principal, InputStream body) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return listingImportService.importCsv(principal.getUser(), body);
+    }
+
+    /**
+     * 批量导入（JSON）：请求体为发布请求组成的数组，规则同 CSV。
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ListingImportResponse importJson(
+            @AuthenticationPrincipal AuthenticatedUser principal, InputStream body) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return listingImportService.importJson(principal.getUser(), body);
+    }
 }
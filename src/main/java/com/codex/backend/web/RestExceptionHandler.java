@@ -6,6 +6,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -40,6 +41,16 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(ex.getStatusCode()).body(body);
     }
 
+    /**
+     * 连接池在等待超时内没有空闲连接：返回 503 让客户端稍后重试，而不是 500。
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Object> handleConnectionPoolExhausted(CannotCreateTransactionException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "服务繁忙，请稍后重试");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneric(Exception ex) {
         Map<String, Object> body = new HashMap<>();
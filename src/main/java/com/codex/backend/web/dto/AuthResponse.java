@@ -1,9 +1,14 @@
 package com.codex.backend.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
- * 登录/注册成功后返回的响应结构，包含 JWT 与用户信息。
+ * 登录/注册成功后返回的响应结构，包含 JWT、用户信息与用于续期的刷新令牌。
  */
-public record AuthResponse(String token, UserPayload user) {
+public record AuthResponse(
+        String token,
+        UserPayload user,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String refreshToken) {
 
     /**
      * 统一的用户信息载体，字段名称与前端展示完全一致。
@@ -1,5 +1,6 @@
 package com.codex.backend.web.dto;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,5 +18,7 @@ public record CreateListingRequest(
         @NotBlank @Size(max = 120) String location,
         @NotBlank String tradeOption,
         boolean isFavorite,
-        @Size(max = 500) String imageUrl) {
+        @Size(max = 500) String imageUrl,
+        @DecimalMin("-90.0") @DecimalMax("90.0") Double latitude,
+        @DecimalMin("-180.0") @DecimalMax("180.0") Double longitude) {
 }
@@ -0,0 +1,15 @@
+package com.codex.backend.web.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Listing 分页查询条件，所有筛选项均为可选。
+ */
+public record ListingFeedQuery(
+        String condition,
+        String tradeOption,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        String location,
+        String cursor,
+        int limit) {}
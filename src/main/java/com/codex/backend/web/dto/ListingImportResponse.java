@@ -0,0 +1,16 @@
+package com.codex.backend.web.dto;
+
+import java.util.List;
+
+/**
+ * 批量导入结果：`imported` 为已写入的行数，`failed` 为被跳过的行数，`errors` 只列出前若干条原因。
+ *
+ * <p>导入按批提交，`completed` 为 false 表示文件在中途无法继续解析，此前的批次已经写入。
+ */
+public record ListingImportResponse(int imported, int failed, boolean completed, List<RowError> errors) {
+
+    /**
+     * `row` 为数据行序号（从 1 开始，不含 CSV 表头）。
+     */
+    public record RowError(long row, String message) {}
+}
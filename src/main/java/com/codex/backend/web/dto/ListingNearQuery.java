@@ -0,0 +1,6 @@
+package com.codex.backend.web.dto;
+
+/**
+ * “附近”查询条件：near 为 "lat,lon" 或 "me"（使用当前用户保存的坐标），radiusKm 为空时取默认半径。
+ */
+public record ListingNearQuery(String near, Double radiusKm, String cursor, int limit) {}
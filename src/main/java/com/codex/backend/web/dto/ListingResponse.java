@@ -1,9 +1,10 @@
 package com.codex.backend.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.math.BigDecimal;
 
 /**
- * 雪板 Listing 的响应结构，完全对齐 iOS 端字段。
+ * 雪板 Listing 的响应结构，完全对齐 iOS 端字段；经纬度与距离仅在有值时输出。
  */
 public record ListingResponse(
         String listingId,
@@ -15,7 +16,10 @@ public record ListingResponse(
         String tradeOption,
         boolean isFavorite,
         String imageUrl,
-        SellerResponse seller) {
+        SellerResponse seller,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double latitude,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double longitude,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double distanceKm) {
 
     /**
      * 内嵌卖家信息节点，供前端展示昵称、评分和成交次数。
@@ -0,0 +1,8 @@
+package com.codex.backend.web.dto;
+
+import java.util.List;
+
+/**
+ * 游标分页响应：`next_cursor` 为空表示已经没有更多数据。
+ */
+public record PageResponse<T>(List<T> items, String nextCursor) {}
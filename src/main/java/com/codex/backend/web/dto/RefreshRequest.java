@@ -0,0 +1,6 @@
+package com.codex.backend.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(@NotBlank String refreshToken) {
+}
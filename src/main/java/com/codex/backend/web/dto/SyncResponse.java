@@ -0,0 +1,30 @@
+package com.codex.backend.web.dto;
+
+import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.trip.TripResponse;
+import java.util.List;
+
+/**
+ * 增量同步响应：只包含水位之后变化过的对象（当前完整状态）与已删除对象的 ID。
+ *
+ * <p>`reset` 为 true 时水位无效，客户端需全量刷新各列表，再以 `next_since` 继续增量同步；
+ * `has_more` 为 true 时应立即用 `next_since` 继续拉取。收藏的删除以 Listing ID 表示。
+ */
+public record SyncResponse(
+        String nextSince,
+        boolean reset,
+        boolean hasMore,
+        List<ListingResponse> listings,
+        List<FavoriteResponse> favorites,
+        List<MessageThreadResponse> threads,
+        List<TripResponse> trips,
+        Deleted deleted) {
+
+    public record Deleted(List<String> listings, List<String> favorites, List<String> threads, List<String> trips) {}
+
+    public static SyncResponse reset(String nextSince) {
+        return new SyncResponse(
+                nextSince, true, false, List.of(), List.of(), List.of(), List.of(),
+                new Deleted(List.of(), List.of(), List.of(), List.of()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.codex.backend.web.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 更新当前用户坐标的请求体，用于“附近的雪板”查询。
+ */
+public record UpdateLocationRequest(
+        @NotNull @DecimalMin("-90.0") @DecimalMax("90.0") Double latitude,
+        @NotNull @DecimalMin("-180.0") @DecimalMax("180.0") Double longitude) {
+}
@@ -0,0 +1,6 @@
+package com.codex.backend.web.dto.message;
+
+/**
+ * 推送给会话双方的新消息事件（SSE 事件名 `message`）。
+ */
+public record MessagePushEvent(String threadId, MessageThreadResponse.MessageResponse message) {}
@@ -0,0 +1,8 @@
+package com.codex.backend.web.dto.message;
+
+import java.time.Instant;
+
+/**
+ * 发送消息的精简响应：只回传新消息与会话的最新更新时间，体积与会话长度无关。
+ */
+public record MessageSentResponse(String threadId, MessageThreadResponse.MessageResponse message, Instant updatedAt) {}
@@ -1,11 +1,12 @@
 package com.codex.backend.web.dto.message;
 
 import com.codex.backend.web.dto.ListingResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.Instant;
 import java.util.List;
 
 /**
- * 站内信线程响应结构。
+ * 站内信线程响应结构。分页查看历史消息时附带 `older_cursor`/`newer_cursor`，完整模式下两者省略。
  */
 public record MessageThreadResponse(
         String threadId,
@@ -15,7 +16,9 @@ public record MessageThreadResponse(
         List<MessageResponse> messages,
         int unreadCount,
         boolean archived,
-        Instant updatedAt) {
+        Instant updatedAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String olderCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String newerCursor) {
 
     /** 用户摘要响应。 */
     public record ParticipantResponse(String userId, String displayName, Double rating, Integer dealsCount) {}
@@ -0,0 +1,20 @@
+package com.codex.backend.web.dto.message;
+
+import java.time.Instant;
+
+/**
+ * 收件箱摘要响应：只包含最后一条消息、未读数与 Listing 缩略信息。
+ */
+public record MessageThreadSummaryResponse(
+        String threadId,
+        ListingThumbnail listing,
+        MessageThreadResponse.ParticipantResponse buyer,
+        MessageThreadResponse.ParticipantResponse seller,
+        MessageThreadResponse.MessageResponse lastMessage,
+        long unreadCount,
+        boolean archived,
+        Instant updatedAt) {
+
+    /** Listing 缩略节点。 */
+    public record ListingThumbnail(String listingId, String title, String imageUrl) {}
+}
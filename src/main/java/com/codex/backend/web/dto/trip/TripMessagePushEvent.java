@@ -0,0 +1,6 @@
+package com.codex.backend.web.dto.trip;
+
+/**
+ * 推送给行程成员的群聊消息事件（SSE 事件名 `trip_message`）。
+ */
+public record TripMessagePushEvent(String tripId, TripResponse.TripMessageResponse message) {}
@@ -0,0 +1,15 @@
+package com.codex.backend.web.dto.trip;
+
+import java.time.Instant;
+
+/**
+ * 行程时间轴查询条件：`from`/`to` 限定开始时间窗口，`status` 支持逗号分隔的多个状态。
+ * 三者都未指定时只返回尚未结束的行程。
+ */
+public record TripTimelineQuery(
+        Instant from,
+        Instant to,
+        String status,
+        String destination,
+        String cursor,
+        int limit) {}
@@ -1,6 +1,7 @@
 package com.codex.backend.web.favorites;
 
 import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.CollectionVersions;
 import com.codex.backend.service.FavoriteService;
 import com.codex.backend.web.dto.FavoriteResponse;
 import jakarta.validation.constraints.NotBlank;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -25,16 +27,21 @@ import org.springframework.web.server.ResponseStatusException;
 public class FavoriteController {
 
     private final FavoriteService favoriteService;
+    private final CollectionVersions collectionVersions;
 
-    public FavoriteController(FavoriteService favoriteService) {
+    public FavoriteController(FavoriteService favoriteService, CollectionVersions collectionVersions) {
         this.favoriteService = favoriteService;
+        this.collectionVersions = collectionVersions;
     }
 
     @GetMapping
-    public List<FavoriteResponse> list(@AuthenticationPrincipal AuthenticatedUser principal) {
+    public List<FavoriteResponse> list(@AuthenticationPrincipal AuthenticatedUser principal, WebRequest webRequest) {
         if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
+        if (webRequest.checkNotModified(collectionVersions.favorites(principal.getUser()))) {
+            return null;
+        }
         return favoriteService.list(principal.getUser());
     }
 
@@ -1,11 +1,17 @@
 package com.codex.backend.web.messages;
 
 import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.CollectionVersions;
 import com.codex.backend.service.MessageService;
+import com.codex.backend.web.JsonArrayStreamer;
 import com.codex.backend.web.dto.message.CreateMessageThreadRequest;
+import com.codex.backend.web.dto.message.MessageSentResponse;
 import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.message.MessageThreadSummaryResponse;
 import com.codex.backend.web.dto.message.SendMessageRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -15,7 +21,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -26,19 +34,58 @@ import org.springframework.web.server.ResponseStatusException;
 public class MessageController {
 
     private final MessageService messageService;
+    private final CollectionVersions collectionVersions;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public MessageController(MessageService messageService) {
+    public MessageController(
+            MessageService messageService,
+            CollectionVersions collectionVersions,
+            JsonArrayStreamer jsonArrayStreamer) {
         this.messageService = messageService;
+        this.collectionVersions = collectionVersions;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping
-    public List<MessageThreadResponse> list(@AuthenticationPrincipal AuthenticatedUser principal) {
+    public List<MessageThreadResponse> list(
+            @AuthenticationPrincipal AuthenticatedUser principal, WebRequest webRequest) {
         if (principal == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
+        if (webRequest.checkNotModified(collectionVersions.threads(principal.getUser()))) {
+            return null;
+        }
         return messageService.listThreads(principal.getUser());
     }
 
+    /**
+     * 流式模式：携带 `stream=true` 时边查边写，字段与排序同会话列表；同时携带 `view` 时按摘要模式处理。
+     */
+    @GetMapping(params = {"stream=true", "!view"})
+    public void stream(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        if (webRequest.checkNotModified(collectionVersions.threads(principal.getUser()))) {
+            return;
+        }
+        jsonArrayStreamer.write(webRequest, response, sink -> messageService.streamThreads(principal.getUser(), sink));
+    }
+
+    /**
+     * 收件箱摘要模式：`?view=summary` 时只返回最后一条消息与未读数。
+     */
+    @GetMapping(params = "view=summary")
+    public List<MessageThreadSummaryResponse> summaries(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return messageService.listThreadSummaries(principal.getUser());
+    }
+
     @GetMapping("/{threadId}")
     public MessageThreadResponse detail(
             @AuthenticationPrincipal AuthenticatedUser principal, @PathVariable String threadId) {
@@ -48,6 +95,23 @@ public class MessageController {
         return messageService.getThread(principal.getUser(), parseUuid(threadId, "thread"));
     }
 
+    /**
+     * 分页查看会话历史：携带 `limit` 时启用，配合 `before`/`after` 游标懒加载更早或更新的消息。
+     */
+    @GetMapping(value = "/{threadId}", params = "limit")
+    public MessageThreadResponse detailPage(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable("threadId") String threadId,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "after", required = false) String after) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return messageService.getThreadPage(
+                principal.getUser(), parseUuid(threadId, "thread"), before, after, limit);
+    }
+
     @PostMapping
     public MessageThreadResponse create(
             @AuthenticationPrincipal AuthenticatedUser principal,
@@ -58,6 +122,19 @@ public class MessageController {
         return messageService.createThread(principal.getUser(), request);
     }
 
+    /**
+     * 精简模式：`?view=compact` 时只返回新消息，旧版客户端仍走完整响应。
+     */
+    @PostMapping(params = "view=compact")
+    public MessageSentResponse createCompact(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody CreateMessageThreadRequest request) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return messageService.createThreadCompact(principal.getUser(), request);
+    }
+
     @PostMapping("/{threadId}/messages")
     public MessageThreadResponse send(
             @AuthenticationPrincipal AuthenticatedUser principal,
@@ -69,6 +146,17 @@ public class MessageController {
         return messageService.sendMessage(principal.getUser(), parseUuid(threadId, "thread"), request);
     }
 
+    @PostMapping(value = "/{threadId}/messages", params = "view=compact")
+    public MessageSentResponse sendCompact(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable("threadId") String threadId,
+            @Valid @RequestBody SendMessageRequest request) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return messageService.sendMessageCompact(principal.getUser(), parseUuid(threadId, "thread"), request);
+    }
+
     private UUID parseUuid(String value, String field) {
         try {
             return UUID.fromString(value);
@@ -0,0 +1,58 @@
+package com.codex.backend.web.stream;
+
+import com.codex.backend.config.StreamProperties;
+import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.ChatEventHub;
+import java.io.IOException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 实时推送接口：以 SSE 推送当前用户站内信与行程群聊的新消息，替代客户端轮询整段会话。
+ */
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    private final ChatEventHub chatEventHub;
+    private final StreamProperties properties;
+
+    public StreamController(ChatEventHub chatEventHub, StreamProperties properties) {
+        this.chatEventHub = chatEventHub;
+        this.properties = properties;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        ChatEventHub.Subscription subscription =
+                chatEventHub.subscribe(principal.getUser().getId(), new ChatEventHub.Sink() {
+                    @Override
+                    public void send(String event, Object payload) throws IOException {
+                        if (payload == null) {
+                            emitter.send(SseEmitter.event().comment(event));
+                        } else {
+                            emitter.send(SseEmitter.event().name(event).data(payload, MediaType.APPLICATION_JSON));
+                        }
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(() -> chatEventHub.close(subscription));
+        emitter.onTimeout(() -> chatEventHub.close(subscription));
+        emitter.onError(ex -> chatEventHub.close(subscription));
+        return emitter;
+    }
+}
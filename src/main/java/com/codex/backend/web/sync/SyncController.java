@@ -0,0 +1,37 @@
+package com.codex.backend.web.sync;
+
+import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.SyncService;
+import com.codex.backend.web.dto.SyncResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 增量同步接口：客户端保存上次返回的 `next_since`，只拉取之后变化的 Listing、收藏、会话与行程。
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    public SyncResponse sync(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+        return syncService.changesSince(principal.getUser(), since, limit);
+    }
+}
@@ -1,12 +1,19 @@
 package com.codex.backend.web.trips;
 
 import com.codex.backend.security.UserDetailsServiceImpl.AuthenticatedUser;
+import com.codex.backend.service.CollectionVersions;
 import com.codex.backend.service.TripService;
+import com.codex.backend.web.JsonArrayStreamer;
+import com.codex.backend.web.dto.PageResponse;
 import com.codex.backend.web.dto.trip.CreateTripRequest;
 import com.codex.backend.web.dto.trip.SendTripMessageRequest;
 import com.codex.backend.web.dto.trip.TripJoinRequestCommand;
 import com.codex.backend.web.dto.trip.TripResponse;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
@@ -16,8 +23,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -28,15 +37,71 @@ import org.springframework.web.server.ResponseStatusException;
 public class TripController {
 
     private final TripService tripService;
+    private final CollectionVersions collectionVersions;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public TripController(TripService tripService) {
+    public TripController(
+            TripService tripService,
+            CollectionVersions collectionVersions,
+            JsonArrayStreamer jsonArrayStreamer) {
         this.tripService = tripService;
+        this.collectionVersions = collectionVersions;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
+    /**
+     * 行程时间轴：默认只返回尚未结束的行程，可用 `from`/`to`（开始时间窗口）、`status`、`destination` 筛选。
+     */
     @GetMapping
-    public List<TripResponse> list(@AuthenticationPrincipal AuthenticatedUser principal) {
+    public List<TripResponse> list(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "destination", required = false) String destination,
+            WebRequest webRequest) {
+        ensureLogin(principal);
+        TripTimelineQuery query = new TripTimelineQuery(from, to, status, destination, null, 0);
+        if (webRequest.checkNotModified(collectionVersions.trips(query))) {
+            return null;
+        }
+        return tripService.listTrips(query);
+    }
+
+    /**
+     * 流式模式：携带 `stream=true` 时边查边写，筛选条件、字段与排序同时间轴列表；同时携带 `limit` 时按分页模式处理。
+     */
+    @GetMapping(params = {"stream=true", "!limit"})
+    public void stream(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "destination", required = false) String destination,
+            WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        ensureLogin(principal);
+        TripTimelineQuery query = new TripTimelineQuery(from, to, status, destination, null, 0);
+        if (webRequest.checkNotModified(collectionVersions.trips(query))) {
+            return;
+        }
+        jsonArrayStreamer.write(webRequest, response, sink -> tripService.streamTrips(query, sink));
+    }
+
+    /**
+     * 游标分页模式：携带 `limit` 时返回 `items` 与 `next_cursor`。
+     */
+    @GetMapping(params = "limit")
+    public PageResponse<TripResponse> page(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "destination", required = false) String destination) {
         ensureLogin(principal);
-        return tripService.listTrips();
+        return tripService.listTripPage(new TripTimelineQuery(from, to, status, destination, cursor, limit));
     }
 
     @PostMapping
@@ -0,0 +1,126 @@
+-- 基线（H2，开发与测试使用）：与 MySQL 版本的表和约束一一对应。
+
+CREATE TABLE users (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    email VARCHAR(191) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    location VARCHAR(100),
+    bio VARCHAR(500),
+    rating DOUBLE PRECISION NOT NULL,
+    deals_count INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE listings (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    condition VARCHAR(20) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    location VARCHAR(120) NOT NULL,
+    trade_option VARCHAR(20) NOT NULL,
+    favorite BOOLEAN NOT NULL,
+    image_url VARCHAR(500),
+    seller_id UUID NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_listings_seller FOREIGN KEY (seller_id) REFERENCES users (id)
+);
+
+CREATE TABLE favorites (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id UUID NOT NULL,
+    listing_id UUID NOT NULL,
+    archived BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_favorites_user_listing UNIQUE (user_id, listing_id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_listing FOREIGN KEY (listing_id) REFERENCES listings (id)
+);
+
+CREATE TABLE message_threads (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    listing_id UUID NOT NULL,
+    seller_id UUID NOT NULL,
+    buyer_id UUID NOT NULL,
+    subject VARCHAR(200),
+    archived BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_message_threads_listing_buyer_seller UNIQUE (listing_id, buyer_id, seller_id),
+    CONSTRAINT fk_message_threads_listing FOREIGN KEY (listing_id) REFERENCES listings (id),
+    CONSTRAINT fk_message_threads_seller FOREIGN KEY (seller_id) REFERENCES users (id),
+    CONSTRAINT fk_message_threads_buyer FOREIGN KEY (buyer_id) REFERENCES users (id)
+);
+
+CREATE TABLE messages (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    thread_id UUID NOT NULL,
+    sender_id UUID NOT NULL,
+    content VARCHAR(2000) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_thread FOREIGN KEY (thread_id) REFERENCES message_threads (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+);
+
+CREATE TABLE trips (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    destination VARCHAR(120) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    start_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    end_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    organizer_id UUID NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trips_organizer FOREIGN KEY (organizer_id) REFERENCES users (id)
+);
+
+CREATE TABLE trip_participants (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    trip_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    role VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_participants_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_participants_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE trip_join_requests (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    trip_id UUID NOT NULL,
+    applicant_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    message VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_join_requests_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_join_requests_applicant FOREIGN KEY (applicant_id) REFERENCES users (id)
+);
+
+CREATE TABLE trip_messages (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    trip_id UUID NOT NULL,
+    sender_id UUID NOT NULL,
+    content VARCHAR(2000) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_messages_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+);
@@ -0,0 +1,60 @@
+-- 基线之后新增的结构（H2，与 MySQL 版本相同）。
+
+ALTER TABLE users ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE listings ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE listings ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE message_threads ADD COLUMN buyer_last_read_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE message_threads ADD COLUMN seller_last_read_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
+
+CREATE TABLE refresh_tokens (
+    id UUID NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id UUID NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id UUID NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used_at TIMESTAMP(6) WITH TIME ZONE,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_refresh_tokens_user_expires ON refresh_tokens (user_id, expires_at);
+
+CREATE INDEX idx_listings_created_id ON listings (created_at, id);
+CREATE INDEX idx_listings_updated_at ON listings (updated_at);
+CREATE INDEX idx_listings_condition_created_id ON listings (condition, created_at, id);
+CREATE INDEX idx_listings_trade_option_created_id ON listings (trade_option, created_at, id);
+CREATE INDEX idx_listings_location_created_id ON listings (location, created_at, id);
+
+CREATE INDEX idx_messages_thread_created_id ON messages (thread_id, created_at, id);
+
+CREATE INDEX idx_trips_start_at_id ON trips (start_at, id);
+CREATE INDEX idx_trips_destination_start_at ON trips (destination, start_at, id);
+
+CREATE TABLE change_log (
+    seq BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id UUID NOT NULL,
+    audience_id UUID,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (seq)
+);
+
+CREATE INDEX idx_change_log_entity ON change_log (entity_type, entity_id);
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+
+-- change_log.seq 的计数行，提交前按块预留，行锁让 seq 顺序与提交顺序一致。
+CREATE TABLE change_log_seq (
+    id INT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO change_log_seq (id, last_seq) VALUES (1, 0);
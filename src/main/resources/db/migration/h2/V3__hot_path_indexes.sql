@@ -0,0 +1,22 @@
+-- 为各仓储查询补齐索引（H2，与 MySQL 版本相同）。
+
+-- 会话列表、收件箱摘要与会话 ETag：买家、卖家两侧分别查询，按 updated_at 倒序。
+CREATE INDEX idx_message_threads_buyer_updated ON message_threads (buyer_id, updated_at);
+CREATE INDEX idx_message_threads_seller_updated ON message_threads (seller_id, updated_at);
+
+-- 行程群聊按 trip 取全部消息并按时间正序。
+CREATE INDEX idx_trip_messages_trip_created_id ON trip_messages (trip_id, created_at, id);
+
+-- findByTripAndUser / findByTripIn...：按行程定位成员；user 在前的索引服务按成员反查行程。
+CREATE INDEX idx_trip_participants_trip_user ON trip_participants (trip_id, user_id);
+CREATE INDEX idx_trip_participants_user_trip ON trip_participants (user_id, trip_id);
+
+-- findByTripAndApplicant 与按状态批量加载待审批请求。
+CREATE INDEX idx_trip_join_requests_trip_applicant ON trip_join_requests (trip_id, applicant_id);
+CREATE INDEX idx_trip_join_requests_trip_status_created ON trip_join_requests (trip_id, status, created_at);
+
+-- 收藏列表按 created_at 倒序；带上 listing_id 后收藏 ID 缓存回源只读索引。
+CREATE INDEX idx_favorites_user_archived_created ON favorites (user_id, archived, created_at, listing_id);
+
+-- 会话作废检查 existsByFamilyIdAndRevokedAtIsNotNull 只读索引。
+CREATE INDEX idx_refresh_tokens_family_revoked ON refresh_tokens (family_id, revoked_at);
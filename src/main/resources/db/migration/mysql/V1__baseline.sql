@@ -0,0 +1,128 @@
+-- 基线：线上库改用 Flyway 之前由 ddl-auto 生成的原始表结构。已有库以 baseline-on-migrate 标记为版本 1，
+-- 不会重复执行，之后新增的列、表与索引都放在 V2 及以后的迁移中。
+
+CREATE TABLE users (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    email VARCHAR(191) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    location VARCHAR(100),
+    bio VARCHAR(500),
+    rating DOUBLE NOT NULL,
+    deals_count INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- condition 是 MySQL 保留字，建表时需要加引号。
+CREATE TABLE listings (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    `condition` VARCHAR(20) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    location VARCHAR(120) NOT NULL,
+    trade_option VARCHAR(20) NOT NULL,
+    favorite BIT NOT NULL,
+    image_url VARCHAR(500),
+    seller_id BINARY(16) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_listings_seller FOREIGN KEY (seller_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE favorites (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    user_id BINARY(16) NOT NULL,
+    listing_id BINARY(16) NOT NULL,
+    archived BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_favorites_user_listing UNIQUE (user_id, listing_id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_listing FOREIGN KEY (listing_id) REFERENCES listings (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE message_threads (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    listing_id BINARY(16) NOT NULL,
+    seller_id BINARY(16) NOT NULL,
+    buyer_id BINARY(16) NOT NULL,
+    subject VARCHAR(200),
+    archived BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_message_threads_listing_buyer_seller UNIQUE (listing_id, buyer_id, seller_id),
+    CONSTRAINT fk_message_threads_listing FOREIGN KEY (listing_id) REFERENCES listings (id),
+    CONSTRAINT fk_message_threads_seller FOREIGN KEY (seller_id) REFERENCES users (id),
+    CONSTRAINT fk_message_threads_buyer FOREIGN KEY (buyer_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE messages (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    thread_id BINARY(16) NOT NULL,
+    sender_id BINARY(16) NOT NULL,
+    content VARCHAR(2000) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_thread FOREIGN KEY (thread_id) REFERENCES message_threads (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trips (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    destination VARCHAR(120) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    start_at DATETIME(6) NOT NULL,
+    end_at DATETIME(6) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    organizer_id BINARY(16) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trips_organizer FOREIGN KEY (organizer_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trip_participants (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    trip_id BINARY(16) NOT NULL,
+    user_id BINARY(16) NOT NULL,
+    role VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_participants_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_participants_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trip_join_requests (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    trip_id BINARY(16) NOT NULL,
+    applicant_id BINARY(16) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    message VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_join_requests_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_join_requests_applicant FOREIGN KEY (applicant_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trip_messages (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    trip_id BINARY(16) NOT NULL,
+    sender_id BINARY(16) NOT NULL,
+    content VARCHAR(2000) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trip_messages_trip FOREIGN KEY (trip_id) REFERENCES trips (id),
+    CONSTRAINT fk_trip_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
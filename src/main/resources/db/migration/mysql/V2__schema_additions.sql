@@ -0,0 +1,59 @@
+-- 基线之后新增的结构：坐标列、会话已读时间、刷新令牌、变更日志，以及列表分页与 ETag 查询的索引。
+
+ALTER TABLE users ADD COLUMN latitude DOUBLE, ADD COLUMN longitude DOUBLE;
+ALTER TABLE listings ADD COLUMN latitude DOUBLE, ADD COLUMN longitude DOUBLE;
+ALTER TABLE message_threads
+    ADD COLUMN buyer_last_read_at DATETIME(6),
+    ADD COLUMN seller_last_read_at DATETIME(6);
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
+
+CREATE TABLE refresh_tokens (
+    id BINARY(16) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    user_id BINARY(16) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id BINARY(16) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    used_at DATETIME(6),
+    revoked_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_refresh_tokens_user_expires ON refresh_tokens (user_id, expires_at);
+
+CREATE INDEX idx_listings_created_id ON listings (created_at, id);
+CREATE INDEX idx_listings_updated_at ON listings (updated_at);
+CREATE INDEX idx_listings_condition_created_id ON listings (`condition`, created_at, id);
+CREATE INDEX idx_listings_trade_option_created_id ON listings (trade_option, created_at, id);
+CREATE INDEX idx_listings_location_created_id ON listings (location, created_at, id);
+
+CREATE INDEX idx_messages_thread_created_id ON messages (thread_id, created_at, id);
+
+CREATE INDEX idx_trips_start_at_id ON trips (start_at, id);
+CREATE INDEX idx_trips_destination_start_at ON trips (destination, start_at, id);
+
+CREATE TABLE change_log (
+    seq BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BINARY(16) NOT NULL,
+    audience_id BINARY(16),
+    deleted BIT NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (seq)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_change_log_entity ON change_log (entity_type, entity_id);
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+
+-- change_log.seq 的计数行，提交前按块预留，行锁让 seq 顺序与提交顺序一致。
+CREATE TABLE change_log_seq (
+    id INT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+INSERT INTO change_log_seq (id, last_seq) VALUES (1, 0);
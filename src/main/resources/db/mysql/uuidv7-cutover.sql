@@ -0,0 +1,18 @@
+-- 主键切换到 UUIDv7 后的一次性维护脚本（MySQL 8，在低峰期手动执行）。
+--
+-- 已有行保留原来的随机 v4 主键：这些 ID 被外键、JWT 的 sub、刷新令牌、客户端缓存、变更日志与分页游标引用，
+-- 重写代价远大于收益。新行改用 UUIDv7 后总是追加在聚簇索引末尾，旧数据不再被随机插入打散；
+-- 下面的重建只需执行一次，用来回收 v4 时期页分裂留下的碎片。
+
+-- 1. 确认所有 UUID 列都是 BINARY(16)。结果为空即可继续；若有 char(36)/binary(255) 等遗留类型，需先单独迁移。
+SELECT table_name, column_name, column_type
+FROM information_schema.columns
+WHERE table_schema = DATABASE()
+  AND (column_name = 'id' OR column_name LIKE '%\_id')
+  AND column_type <> 'binary(16)';
+
+-- 2. 在线重建写入最频繁的表，整理聚簇索引（INPLACE + LOCK=NONE，期间读写不阻塞）。
+ALTER TABLE messages ENGINE = InnoDB, ALGORITHM = INPLACE, LOCK = NONE;
+ALTER TABLE trip_messages ENGINE = InnoDB, ALGORITHM = INPLACE, LOCK = NONE;
+ALTER TABLE listings ENGINE = InnoDB, ALGORITHM = INPLACE, LOCK = NONE;
+ANALYZE TABLE messages, trip_messages, listings;
@@ -0,0 +1,197 @@
+package com.codex.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 平台线程与虚拟线程两种请求处理模式的端到端对比：分别启动一次应用，用同样的并发压测 {@code GET /api/trips}，
+ * 输出吞吐、p50 与 p99。
+ *
+ * <p>内存 H2 的查询几乎不耗时，体现不出 I/O 等待，因此给数据源套一层代理，每条 SQL 执行前固定休眠一段时间，
+ * 模拟真实数据库的往返延迟。两种模式使用相同的连接池大小。
+ *
+ * <p>运行方式：需 Java 21，{@code mvn -Pjava21 test-compile} 后以测试 classpath 执行本类的 main 方法，
+ * 可选参数依次为并发数、请求数、每条 SQL 的模拟延迟（毫秒）、连接池大小。类名不以 Test 结尾，不会随
+ * {@code mvn test} 执行。
+ */
+public final class ThreadingModeBenchmark {
+
+    private ThreadingModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.err.println("虚拟线程模式需要 Java 21，当前为 " + Runtime.version());
+            return;
+        }
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long statementLatencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        int poolSize = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        System.out.printf("concurrency=%d requests=%d statement_latency=%dms pool=%d%n",
+                concurrency, requests, statementLatencyMillis, poolSize);
+        for (boolean virtual : new boolean[] {false, true}) {
+            run(virtual, concurrency, requests, statementLatencyMillis, poolSize);
+        }
+    }
+
+    private static void run(boolean virtual, int concurrency, int requests, long latencyMillis, int poolSize)
+            throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CodexBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "logging.level.root=WARN")
+                .initializers(context -> context.getBeanFactory()
+                        .addBeanPostProcessor(new LatencyInjector(latencyMillis)));
+        if (virtual) {
+            builder.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String token = login(client, baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/trips"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+
+            // 预热：JIT 与连接池。
+            drive(client, request, Math.min(concurrency, 50), Math.min(requests, 2_000));
+            Result result = drive(client, request, concurrency, requests);
+            System.out.printf("%-8s throughput=%.0f req/s p50=%.1fms p99=%.1fms errors=%d%n",
+                    mode, result.throughput(), result.percentileMillis(0.50), result.percentileMillis(0.99),
+                    result.errors());
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"admin@admin.com\",\"password\":\"12345678\"}"))
+                .build();
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("登录失败: " + response.statusCode() + " " + response.body());
+        }
+        return new ObjectMapper().readTree(response.body()).get("token").asText();
+    }
+
+    private static Result drive(HttpClient client, HttpRequest request, int concurrency, int requests)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicLongArray latencies = new AtomicLongArray(requests);
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies.set(index, System.nanoTime() - sentAt);
+                if (error != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - started;
+        long[] sorted = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Result(requests * 1e9 / elapsed, sorted, errors.get());
+    }
+
+    private record Result(double throughput, long[] sortedNanos, int errors) {
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * 给数据源包一层代理：每次执行 SQL 前休眠固定时长，连接在休眠期间保持占用，与真实数据库往返一致。
+     */
+    private record LatencyInjector(long latencyMillis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, result -> result instanceof Connection connection
+                        ? proxy(Connection.class, connection, this::wrapStatement)
+                        : result);
+            }
+            return bean;
+        }
+
+        private Object wrapStatement(Object result) {
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            // PreparedStatement/CallableStatement 需保留原接口，否则调用方强转失败。
+            Class<?> type = statement instanceof CallableStatement
+                    ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(latencyMillis);
+                }
+                return invoke(statement, method, args);
+            };
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+
+        private static <T> T proxy(Class<T> type, T target, UnaryOperator<Object> resultMapper) {
+            InvocationHandler handler =
+                    (proxy, method, args) -> resultMapper.apply(invoke(target, method, args));
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
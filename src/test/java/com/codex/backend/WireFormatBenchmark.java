@@ -0,0 +1,188 @@
+package com.codex.backend;
+
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.trip.Trip;
+import com.codex.backend.domain.trip.TripMessage;
+import com.codex.backend.domain.trip.TripParticipant;
+import com.codex.backend.domain.trip.TripParticipantRole;
+import com.codex.backend.domain.trip.TripStatus;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.MessageRepository;
+import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.repository.TripMessageRepository;
+import com.codex.backend.repository.TripParticipantRepository;
+import com.codex.backend.repository.TripRepository;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.service.ListingService;
+import com.codex.backend.service.MessageService;
+import com.codex.backend.service.TripService;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON、CBOR、Smile 三种编码的对比：对 {@code GET /api/listings}、{@code GET /api/trips}、
+ * {@code GET /api/messages} 的响应体，分别输出原始字节数、gzip 后字节数，以及每次序列化与 gzip 压缩
+ * 消耗的 CPU 时间（当前线程 CPU 时间，不含 GC 线程）。
+ *
+ * <p>响应 DTO 直接取自对应的 service，序列化使用应用中消息转换器的同一组 ObjectMapper，gzip 使用默认压缩级别，
+ * 与 Tomcat 的 {@code server.compression} 一致。Tomcat 自带的压缩不支持 brotli，这里不做测量。
+ *
+ * <p>运行方式：{@code mvn test-compile} 后以测试 classpath 执行本类的 main 方法，可选参数依次为造数规模
+ * （Listing、行程、会话各多少条）与每项测量时长（毫秒）。类名不以 Test 结尾，不会随 {@code mvn test} 执行。
+ */
+public final class WireFormatBenchmark {
+
+    /** 保存每次的结果，避免 JIT 把结果未被使用的调用整个消除。 */
+    private static volatile Object blackhole;
+
+    private WireFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long measureMillis = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CodexBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-wire;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = builder.run()) {
+            User admin = context.getBean(UserRepository.class).findByEmail("admin@admin.com").orElseThrow();
+            seed(context, admin, size);
+
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /api/listings", context.getBean(ListingService.class).fetchAll(admin));
+            endpoints.put("GET /api/trips", context.getBean(TripService.class)
+                    .listTrips(new TripTimelineQuery(null, null, null, null, null, 0)));
+            endpoints.put("GET /api/messages", context.getBean(MessageService.class).listThreads(admin));
+
+            Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+            formats.put("json", context.getBean(ObjectMapper.class));
+            formats.put("cbor", context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper());
+            formats.put("smile", context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper());
+
+            System.out.printf("size=%d measure=%dms%n", size, measureMillis);
+            System.out.printf("%-28s %-6s %10s %10s %8s %14s %14s%n",
+                    "endpoint", "format", "bytes", "gzip", "ratio", "serialize_us", "gzip_us");
+            for (Map.Entry<String, Object> endpoint : endpoints.entrySet()) {
+                long jsonBytes = 0;
+                for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                    ObjectWriter writer = format.getValue().writer();
+                    byte[] body = writer.writeValueAsBytes(endpoint.getValue());
+                    byte[] compressed = gzip(body);
+                    if (jsonBytes == 0) {
+                        jsonBytes = body.length;
+                    }
+                    double serializeMicros = cpuMicrosPerOp(measureMillis,
+                            () -> writer.writeValueAsBytes(endpoint.getValue()));
+                    double gzipMicros = cpuMicrosPerOp(measureMillis, () -> gzip(body));
+                    System.out.printf("%-28s %-6s %10d %10d %7.1f%% %14.1f %14.1f%n",
+                            endpoint.getKey(), format.getKey(), body.length, compressed.length,
+                            compressed.length * 100.0 / jsonBytes, serializeMicros, gzipMicros);
+                }
+            }
+            System.out.println("ratio = gzip 后字节数 / 未压缩 JSON 字节数");
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, User admin, int size) {
+        UserRepository users = context.getBean(UserRepository.class);
+        ListingRepository listings = context.getBean(ListingRepository.class);
+        MessageThreadRepository threads = context.getBean(MessageThreadRepository.class);
+        MessageRepository messages = context.getBean(MessageRepository.class);
+        TripRepository trips = context.getBean(TripRepository.class);
+        TripParticipantRepository participants = context.getBean(TripParticipantRepository.class);
+        TripMessageRepository tripMessages = context.getBean(TripMessageRepository.class);
+
+        List<User> riders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            riders.add(new User("bench-" + UUID.randomUUID() + "@codex.com", "hash", "Rider " + i));
+        }
+        users.saveAll(riders);
+        List<Listing> boards = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            boards.add(new Listing(
+                    "Burton Custom " + (150 + i % 12), "Camber all-mountain board, waxed and edges tuned. Ride " + i,
+                    ListingCondition.values()[i % ListingCondition.values().length],
+                    BigDecimal.valueOf(199 + i % 300), "London", TradeOption.values()[i % TradeOption.values().length],
+                    false, "https://images.example.com/boards/" + i + ".jpg", riders.get(i)));
+        }
+        listings.saveAll(boards);
+        for (int i = 0; i < size; i++) {
+            User rider = riders.get(i);
+            MessageThread thread = threads.save(
+                    new MessageThread(boards.get(i), rider, admin, boards.get(i).getTitle()));
+            messages.saveAll(List.of(
+                    new Message(thread, admin, "Is this still available?"),
+                    new Message(thread, rider, "Yes, happy to meet in Camden this weekend.")));
+
+            Instant start = Instant.now().plus(i + 1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+            Trip trip = trips.save(new Trip(
+                    "Weekend in Chamonix " + i, "Chamonix", "Splitboard tour, intermediate level",
+                    start, start.plus(2, ChronoUnit.DAYS), TripStatus.UPCOMING, rider));
+            participants.saveAll(List.of(
+                    new TripParticipant(trip, rider, TripParticipantRole.ORGANIZER),
+                    new TripParticipant(trip, riders.get((i + 1) % size), TripParticipantRole.MEMBER)));
+            tripMessages.saveAll(List.of(
+                    new TripMessage(trip, rider, "Meeting at the Aiguille du Midi lift at 8"),
+                    new TripMessage(trip, riders.get((i + 1) % size), "See you there")));
+        }
+    }
+
+    private interface Operation {
+        Object run() throws IOException;
+    }
+
+    /**
+     * 先预热同样时长，再在测量时长内反复执行，返回平均每次的当前线程 CPU 时间（微秒）。
+     */
+    private static double cpuMicrosPerOp(long measureMillis, Operation operation) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        repeat(measureMillis, operation);
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long ops = repeat(measureMillis, operation);
+        return (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000.0 / ops;
+    }
+
+    private static long repeat(long millis, Operation operation) throws IOException {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long ops = 0;
+        while (System.nanoTime() < deadline) {
+            blackhole = operation.run();
+            ops++;
+        }
+        return ops;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,126 @@
+package com.codex.backend.domain;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 随机 v4 与 UUIDv7 主键的插入压测：对 docker-compose 中的 MySQL 分别向两张结构与 {@code messages} 相同的表
+ * 批量写入数百万行，按区间输出每秒插入行数，最后输出两张表的数据与索引大小。
+ *
+ * <p>表超出 InnoDB buffer pool（docker 镜像默认 128MB）之后，v4 每次插入都要把聚簇索引中随机位置的页读回内存并分裂，
+ * 吞吐随行数增长持续下降；v7 始终写在索引最右端，吞吐基本保持不变。
+ *
+ * <p>运行方式：{@code docker compose up -d db}，{@code mvn test-compile} 后以测试 classpath 执行本类的 main 方法，
+ * 可选参数依次为行数、JDBC URL、用户名、密码。类名不以 Test 结尾，不会随 {@code mvn test} 执行。
+ */
+public final class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPORT_EVERY = 500_000;
+    private static final int THREADS_PER_TABLE = 1_000;
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String url = args.length > 1
+                ? args[1]
+                : "jdbc:mysql://localhost:3306/codex?useSSL=false&allowPublicKeyRetrieval=true"
+                        + "&serverTimezone=UTC&rewriteBatchedStatements=true";
+        String user = args.length > 2 ? args[2] : "codex";
+        String password = args.length > 3 ? args[3] : "codexpass";
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            run(connection, "bench_messages_v4", rows, UUID::randomUUID);
+            run(connection, "bench_messages_v7", rows, UuidV7Generator::next);
+            report(connection, "bench_messages_v4");
+            report(connection, "bench_messages_v7");
+        }
+    }
+
+    private static void run(Connection connection, String table, int rows, Supplier<UUID> ids) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("""
+                    CREATE TABLE %s (
+                        id BINARY(16) NOT NULL PRIMARY KEY,
+                        thread_id BINARY(16) NOT NULL,
+                        sender_id BINARY(16) NOT NULL,
+                        content VARCHAR(1000) NOT NULL,
+                        created_at DATETIME(6) NOT NULL,
+                        updated_at DATETIME(6) NOT NULL,
+                        KEY idx_thread_created_id (thread_id, created_at, id)
+                    ) ENGINE = InnoDB
+                    """.formatted(table));
+        }
+        // 会话与发送者 ID 取自固定集合，二级索引的前缀分布与真实数据相近。
+        byte[][] threads = new byte[THREADS_PER_TABLE][];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = bytes(UUID.randomUUID());
+        }
+
+        connection.setAutoCommit(false);
+        String sql = "INSERT INTO " + table
+                + " (id, thread_id, sender_id, content, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+        System.out.printf("%s: inserting %,d rows%n", table, rows);
+        long started = System.nanoTime();
+        long intervalStarted = started;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int row = 1; row <= rows; row++) {
+                byte[] thread = threads[ThreadLocalRandom.current().nextInt(threads.length)];
+                Timestamp now = Timestamp.from(Instant.now());
+                insert.setBytes(1, bytes(ids.get()));
+                insert.setBytes(2, thread);
+                insert.setBytes(3, thread);
+                insert.setString(4, "你好，这块板子还在吗？消息编号 " + row);
+                insert.setTimestamp(5, now);
+                insert.setTimestamp(6, now);
+                insert.addBatch();
+                if (row % BATCH_SIZE == 0 || row == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (row % REPORT_EVERY == 0) {
+                    long elapsed = System.nanoTime() - intervalStarted;
+                    System.out.printf("  %,11d rows  %,9.0f rows/s%n", row, REPORT_EVERY * 1e9 / elapsed);
+                    intervalStarted = System.nanoTime();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+        System.out.printf("%s: total %.1fs, %,.0f rows/s%n",
+                table, (System.nanoTime() - started) / 1e9, rows * 1e9 / (System.nanoTime() - started));
+    }
+
+    private static void report(Connection connection, String table) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + table);
+            try (ResultSet result = statement.executeQuery("""
+                    SELECT data_length, index_length FROM information_schema.tables
+                    WHERE table_schema = DATABASE() AND table_name = '%s'
+                    """.formatted(table))) {
+                if (result.next()) {
+                    System.out.printf("%s: data %,d MB, secondary indexes %,d MB%n",
+                            table, result.getLong(1) >> 20, result.getLong(2) >> 20);
+                }
+            }
+        }
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
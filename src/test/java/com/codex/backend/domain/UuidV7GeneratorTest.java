@@ -0,0 +1,67 @@
+package com.codex.backend.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void setsVersionVariantAndTimestamp() {
+        long before = Instant.now().toEpochMilli();
+        UUID uuid = UuidV7Generator.next();
+        long after = Instant.now().toEpochMilli();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // 计数溢出时可能借用下一毫秒。
+        assertThat(UuidV7Generator.timestamp(uuid).toEpochMilli()).isBetween(before, after + 1);
+    }
+
+    @Test
+    void valuesAreStrictlyIncreasingWithinOneProcess() {
+        List<UUID> generated = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            generated.add(UuidV7Generator.next());
+        }
+        List<UUID> sorted = new ArrayList<>(generated);
+        Collections.sort(sorted);
+        assertThat(generated).isEqualTo(sorted);
+        assertThat(new HashSet<>(generated)).hasSize(generated.size());
+    }
+
+    @Test
+    void concurrentCallersNeverCollide() throws InterruptedException {
+        ConcurrentLinkedQueue<UUID> generated = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    generated.add(UuidV7Generator.next());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Set<UUID> unique = new HashSet<>(generated);
+        assertThat(unique).hasSize(80_000);
+    }
+
+    @Test
+    void rejectsRandomUuidTimestamp() {
+        assertThatThrownBy(() -> UuidV7Generator.timestamp(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,257 @@
+package com.codex.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.favorite.Favorite;
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.sync.SyncEntityType;
+import com.codex.backend.domain.trip.Trip;
+import com.codex.backend.domain.trip.TripJoinRequest;
+import com.codex.backend.domain.trip.TripMessage;
+import com.codex.backend.domain.trip.TripParticipant;
+import com.codex.backend.domain.trip.TripParticipantRole;
+import com.codex.backend.domain.trip.TripRequestStatus;
+import com.codex.backend.domain.trip.TripStatus;
+import com.codex.backend.domain.user.RefreshToken;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.projection.ThreadKey;
+import com.codex.backend.service.ChangeLog;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 在 Flyway 建好的 H2（MySQL 兼容模式）上对热点仓储方法生成的 SQL 执行 EXPLAIN，
+ * 目标表出现全表扫描（{@code tableScan}）即失败，防止新查询或改写后的查询绕开迁移脚本中的索引。
+ *
+ * <p>SQL 由 Hibernate 的 StatementInspector 截获，参数保持为占位符，只看执行计划不执行查询。
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plan;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int FIXTURE_SIZE = 40;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private MessageThreadRepository messageThreadRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TripParticipantRepository tripParticipantRepository;
+
+    @Autowired
+    private TripJoinRequestRepository tripJoinRequestRepository;
+
+    @Autowired
+    private TripMessageRepository tripMessageRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    private User user;
+    private Listing listing;
+    private MessageThread thread;
+    private Trip trip;
+    private UUID familyId;
+
+    /**
+     * 每张表准备几十行并更新统计信息，避免优化器因为表太小而直接选择全表扫描。
+     */
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            users.add(userRepository.save(new User("plan-" + i + "@codex.com", "hash", "Planner " + i)));
+        }
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            User seller = users.get(i);
+            User buyer = users.get((i + 1) % FIXTURE_SIZE);
+            Listing board = listingRepository.save(new Listing(
+                    "Board " + i, "Query plan fixture", ListingCondition.GOOD, BigDecimal.TEN, "London",
+                    TradeOption.COURIER, false, null, seller));
+            favoriteRepository.save(new Favorite(buyer, board));
+            MessageThread conversation = messageThreadRepository.save(new MessageThread(board, seller, buyer, "Board"));
+            messageRepository.save(new Message(conversation, buyer, "Still available?"));
+            messageRepository.save(new Message(conversation, seller, "Yes"));
+
+            Instant start = Instant.now().plus(i + 1, ChronoUnit.DAYS);
+            Trip outing = tripRepository.save(new Trip(
+                    "Trip " + i, "Zermatt", "Query plan fixture", start, start.plus(1, ChronoUnit.DAYS),
+                    TripStatus.UPCOMING, seller));
+            tripParticipantRepository.save(new TripParticipant(outing, seller, TripParticipantRole.ORGANIZER));
+            tripParticipantRepository.save(new TripParticipant(outing, buyer, TripParticipantRole.MEMBER));
+            tripJoinRequestRepository.save(new TripJoinRequest(
+                    outing, users.get((i + 2) % FIXTURE_SIZE), TripRequestStatus.PENDING, "Count me in"));
+            tripMessageRepository.save(new TripMessage(outing, seller, "Welcome"));
+            tripMessageRepository.save(new TripMessage(outing, buyer, "Thanks"));
+
+            UUID family = UUID.randomUUID();
+            refreshTokenRepository.save(new RefreshToken(seller, "plan-token-" + i, family, start));
+            changeLog.upsert(SyncEntityType.LISTING, board.getId());
+
+            if (i == 0) {
+                user = buyer;
+                listing = board;
+                thread = conversation;
+                trip = outing;
+                familyId = family;
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void threadQueriesUseParticipantIndexes() {
+        assertNoFullScan(() -> messageThreadRepository.findByParticipantOrderByUpdatedAtDesc(user),
+                "message_threads", "messages");
+        assertNoFullScan(() -> messageThreadRepository.findSummariesByParticipant(user),
+                "message_threads", "messages");
+        assertNoFullScan(() -> messageThreadRepository.findVersionByParticipant(user), "message_threads");
+        assertNoFullScan(() -> {
+            try (Stream<ThreadKey> keys = messageThreadRepository.streamKeysByParticipant(user)) {
+                keys.forEach(key -> { });
+            }
+        }, "message_threads");
+        assertNoFullScan(() -> messageThreadRepository.findByIdAndParticipant(thread.getId(), user),
+                "message_threads");
+    }
+
+    @Test
+    void messageWindowUsesThreadIndex() {
+        assertNoFullScan(() -> messageRepository.findWindowBefore(thread, null, null, PageRequest.of(0, 50)),
+                "messages");
+        assertNoFullScan(() -> messageRepository.findWindowAfter(
+                thread, Instant.EPOCH, new UUID(0, 0), PageRequest.of(0, 50)), "messages");
+    }
+
+    @Test
+    void tripChildQueriesUseTripIndexes() {
+        assertNoFullScan(() -> tripMessageRepository.findByTripOrderByCreatedAtAsc(trip), "trip_messages");
+        assertNoFullScan(() -> tripMessageRepository.findByTripInOrderByCreatedAtAsc(List.of(trip)),
+                "trip_messages");
+        assertNoFullScan(() -> tripParticipantRepository.findByTripAndUser(trip, user), "trip_participants");
+        assertNoFullScan(() -> tripParticipantRepository.findByTripInOrderByCreatedAtAsc(List.of(trip)),
+                "trip_participants");
+        assertNoFullScan(() -> tripJoinRequestRepository.findByTripAndApplicant(trip, user), "trip_join_requests");
+        assertNoFullScan(() -> tripJoinRequestRepository.findByTripInAndStatusOrderByCreatedAtAsc(
+                List.of(trip), TripRequestStatus.PENDING), "trip_join_requests");
+    }
+
+    @Test
+    void favoriteQueriesUseUserIndex() {
+        assertNoFullScan(() -> favoriteRepository.findByUserAndArchivedFalseOrderByCreatedAtDesc(user), "favorites");
+        assertNoFullScan(() -> favoriteRepository.findActiveListingIdsByUserId(user.getId()), "favorites");
+        assertNoFullScan(() -> favoriteRepository.findByUserAndListing(user, listing), "favorites");
+        assertNoFullScan(() -> favoriteRepository.findVersionByUser(user), "favorites");
+    }
+
+    @Test
+    void authAndSyncLookupsUseIndexes() {
+        assertNoFullScan(() -> userRepository.findByEmail("plan-0@codex.com"), "users");
+        assertNoFullScan(() -> refreshTokenRepository.findByTokenHash("plan-token-0"), "refresh_tokens");
+        assertNoFullScan(() -> refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNotNull(familyId),
+                "refresh_tokens");
+        assertNoFullScan(
+                () -> changeLogRepository.findVisibleAfter(0, Long.MAX_VALUE, user.getId(), PageRequest.of(0, 200)),
+                "change_log");
+    }
+
+    /**
+     * 执行查询并截获其 SQL，逐条 EXPLAIN，断言给定表没有出现全表扫描。
+     */
+    private void assertNoFullScan(Runnable query, String... tables) {
+        sqlCapture.statements.clear();
+        transactionTemplate.executeWithoutResult(status -> query.run());
+        List<String> selects = sqlCapture.statements.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertThat(selects).as("captured statements").isNotEmpty();
+        for (String sql : selects) {
+            String plan = String.join("\n", jdbcTemplate.query(
+                    connection -> connection.prepareStatement("EXPLAIN " + sql),
+                    (row, rowNum) -> row.getString(1)));
+            for (String table : tables) {
+                assertThat(plan.toLowerCase(Locale.ROOT))
+                        .as("plan for %s%n%s", table, plan)
+                        .doesNotContain("." + table + ".tablescan");
+            }
+        }
+    }
+
+    static final class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfiguration {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.codex.backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codex.backend.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsWithTooManyRequestsWhenSaturated() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties(4, 1, 1), registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> running = callers.submit(() -> encoder.encode(new BlockingPassword("secret", started, release)));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> queued = callers.submit(() -> encoder.encode("queued"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registry.get("auth.password.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThatThrownBy(() -> encoder.encode("rejected"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            String hash = running.get(5, TimeUnit.SECONDS);
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isNotBlank();
+            // 排队的任务完成后池中才有空位，再用同一个 encoder 校验。
+            assertThat(encoder.matches("secret", hash)).isTrue();
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void timedOutQueuedHashLeavesQueue() throws Exception {
+        PasswordHashingProperties properties = properties(4, 1, 1);
+        properties.setTimeout(Duration.ofMillis(500));
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode(new BlockingPassword("secret", started, release)));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> encoder.encode("abandoned"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            // 超时的任务已移出队列，下一次请求还能排队，而不是被 429 拒绝。
+            assertThat(registry.get("auth.password.queue").gauge().value()).isZero();
+            Future<String> next = callers.submit(() -> encoder.encode("next"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registry.get("auth.password.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            assertThat(next.get(5, TimeUnit.SECONDS)).isNotBlank();
+            assertThat(registry.get("auth.password.rejected").counter().count()).isZero();
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void flagsHashesBelowConfiguredCostForRehash() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties(5, 1, 4), registry);
+        try {
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    private static PasswordHashingProperties properties(int strength, int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+
+    /**
+     * 在哈希线程读取明文时阻塞，用于稳定地占满线程池。
+     */
+    private record BlockingPassword(String value, CountDownLatch started, CountDownLatch release)
+            implements CharSequence {
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.subSequence(start, end);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.codex.backend.security;
+
+import com.codex.backend.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 单个请求鉴权成本的 JMH 基准：旧实现（每次新建解析器、校验两次）、预构建解析器与摘要缓存命中。
+ *
+ * <p>运行方式：{@code mvn test-compile} 后以测试 classpath 执行本类的 main 方法。
+ * 类名不以 Test 结尾，不会随 {@code mvn test} 执行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "0123456789ABCDEF0123456789ABCDEF";
+    private static final String ISSUER = "bench-issuer";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setIssuer(ISSUER);
+        properties.setSecret(SECRET);
+        properties.setExpiration(Duration.ofHours(2).toString());
+        provider = new JwtTokenProvider(properties);
+        token = provider.generateToken(UUID.randomUUID(), "bench@codex.com");
+        provider.verify(token);
+    }
+
+    /** 旧路径：validateToken + extractUserId，各自新建解析器并校验签名。 */
+    @Benchmark
+    public Object legacyDoubleParse() {
+        Object first = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(ISSUER)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        Object second = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(ISSUER)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+        return first != null ? second : null;
+    }
+
+    /** 预构建解析器，单次完整校验（缓存未命中时的成本）。 */
+    @Benchmark
+    public Object prebuiltParserSingleParse() {
+        return provider.parseVerified(token);
+    }
+
+    /** 稳定状态：摘要命中缓存，不再做签名计算。 */
+    @Benchmark
+    public Object cachedVerify() {
+        return provider.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -3,17 +3,22 @@ package com.codex.backend.security;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.codex.backend.config.JwtProperties;
+import com.codex.backend.domain.user.User;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class JwtTokenProviderTest {
 
+    private JwtProperties properties;
     private JwtTokenProvider tokenProvider;
 
     @BeforeEach
     void setUp() {
-        JwtProperties properties = new JwtProperties();
+        properties = new JwtProperties();
         properties.setIssuer("test-issuer");
         properties.setSecret("0123456789ABCDEF0123456789ABCDEF");
         properties.setExpiration(Duration.ofMinutes(30).toString());
@@ -22,9 +27,39 @@ class JwtTokenProviderTest {
 
     @Test
     void generateAndValidateToken() {
-        String token = tokenProvider.generateToken(1L, "user@example.com");
+        UUID userId = UUID.randomUUID();
+        String token = tokenProvider.generateToken(userId, "user@example.com");
         assertThat(token).isNotBlank();
         assertThat(tokenProvider.validateToken(token)).isTrue();
-        assertThat(tokenProvider.extractUserId(token)).isEqualTo(1L);
+        assertThat(tokenProvider.extractUserId(token)).isEqualTo(userId);
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromCache() {
+        String token = tokenProvider.generateToken(UUID.randomUUID(), "user@example.com");
+        JwtTokenProvider.VerifiedToken first = tokenProvider.verify(token).orElseThrow();
+        assertThat(tokenProvider.verify(token)).containsSame(first);
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        String token = tokenProvider.generateToken(UUID.randomUUID(), "user@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThat(tokenProvider.verify(tampered)).isEmpty();
+        assertThat(tokenProvider.validateToken("not-a-token")).isFalse();
+    }
+
+    @Test
+    void embedsUserSnapshotWhenEnabled() {
+        User user = User.fromSnapshot(
+                UUID.randomUUID(), "user@example.com", "Rider", "Whistler", 4.5, 3, 50.1163, -122.9574,
+                Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        assertThat(tokenProvider.verify(tokenProvider.generateToken(user)).orElseThrow().snapshot()).isNull();
+
+        properties.setEmbedUserSnapshot(true);
+        JwtTokenProvider.UserSnapshot snapshot =
+                tokenProvider.verify(tokenProvider.generateToken(user)).orElseThrow().snapshot();
+        assertThat(snapshot).isEqualTo(new JwtTokenProvider.UserSnapshot(
+                "Rider", "Whistler", 4.5, 3, 50.1163, -122.9574, user.getUpdatedAt()));
     }
 }
@@ -0,0 +1,35 @@
+package com.codex.backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.config.CacheProperties;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache principalCache = new PrincipalCache(new CacheProperties());
+
+    @Test
+    void snapshotIsCurrentUntilStoredVersionMovesPast() {
+        UUID userId = UUID.randomUUID();
+        Instant issuedAt = Instant.parse("2026-01-01T00:00:00.123456Z");
+        AtomicReference<Instant> stored = new AtomicReference<>(issuedAt);
+
+        // token versions carry millisecond precision only
+        Instant tokenVersion = Instant.parse("2026-01-01T00:00:00.123Z");
+        assertThat(principalCache.isCurrent(userId, tokenVersion, id -> stored.get())).isTrue();
+
+        stored.set(issuedAt.plusSeconds(1));
+        principalCache.evict(userId);
+        assertThat(principalCache.isCurrent(userId, tokenVersion, id -> stored.get())).isFalse();
+        assertThat(principalCache.isCurrent(userId, tokenVersion.plusSeconds(1), id -> stored.get())).isTrue();
+    }
+
+    @Test
+    void deletedUserInvalidatesEverySnapshot() {
+        assertThat(principalCache.isCurrent(UUID.randomUUID(), Instant.now(), id -> Instant.MAX)).isFalse();
+    }
+}
@@ -0,0 +1,48 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codex.backend.domain.user.RefreshToken;
+import com.codex.backend.repository.RefreshTokenRepository;
+import com.codex.backend.web.dto.AuthResponse;
+import com.codex.backend.web.dto.RefreshRequest;
+import com.codex.backend.web.dto.RegisterRequest;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void reusedRefreshTokenRevokesWholeFamily() {
+        AuthResponse registered = authService.register(new RegisterRequest(
+                "refresh-" + UUID.randomUUID() + "@codex.com", "password", "Refresh Rider"));
+        AuthResponse rotated = authService.refresh(new RefreshRequest(registered.refreshToken()));
+
+        // 旧令牌再次出现视为泄露：本次 401，且作废记录随事务提交。
+        assertUnauthorized(registered.refreshToken());
+        List<RefreshToken> family = refreshTokenRepository.findAll().stream()
+                .filter(token -> token.getUser().getId().toString().equals(registered.user().userId()))
+                .toList();
+        assertThat(family).hasSize(2).allSatisfy(token -> assertThat(token.getRevokedAt()).isNotNull());
+        assertUnauthorized(rotated.refreshToken());
+    }
+
+    private void assertUnauthorized(String refreshToken) {
+        assertThatThrownBy(() -> authService.refresh(new RefreshRequest(refreshToken)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -0,0 +1,125 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.config.StreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChatEventHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        StreamProperties properties = new StreamProperties();
+        properties.setBufferSize(4);
+        properties.setMaxConnectionsPerUser(2);
+        properties.setSenderThreads(2);
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new ChatEventHub(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void fansOutToEveryConnectionOfRecipients() throws InterruptedException {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        RecordingSink phone = new RecordingSink(1);
+        RecordingSink tablet = new RecordingSink(1);
+        RecordingSink other = new RecordingSink(1);
+        hub.subscribe(alice, phone);
+        hub.subscribe(alice, tablet);
+        hub.subscribe(bob, other);
+
+        hub.publish(List.of(alice), "message", "hello");
+
+        assertThat(phone.await()).isTrue();
+        assertThat(tablet.await()).isTrue();
+        assertThat(phone.received).containsExactly("hello");
+        assertThat(tablet.received).containsExactly("hello");
+        assertThat(other.received).isEmpty();
+    }
+
+    @Test
+    void evictsOldestConnectionOverPerUserLimit() {
+        UUID userId = UUID.randomUUID();
+        ChatEventHub.Subscription first = hub.subscribe(userId, new RecordingSink(0));
+        hub.subscribe(userId, new RecordingSink(0));
+        hub.subscribe(userId, new RecordingSink(0));
+
+        assertThat(first.isClosed()).isTrue();
+        assertThat(hub.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void disconnectsSlowConsumerWithoutAffectingOthers() throws InterruptedException {
+        UUID slowUser = UUID.randomUUID();
+        UUID fastUser = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        ChatEventHub.Subscription slow = hub.subscribe(slowUser, new ChatEventHub.Sink() {
+            @Override
+            public void send(String event, Object payload) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        RecordingSink fast = new RecordingSink(1);
+        hub.subscribe(fastUser, fast);
+
+        // 缓冲为 4：无论发送线程是否已取走第一条，第 6 条之前必然溢出。
+        for (int i = 0; i < 6; i++) {
+            hub.publish(List.of(slowUser), "message", i);
+        }
+        assertThat(slow.isClosed()).isTrue();
+        assertThat(meterRegistry.counter("chat.stream.dropped").count()).isEqualTo(1);
+
+        // 慢连接仍占着一个发送线程，其他连接照常收到消息。
+        hub.publish(List.of(fastUser), "message", "still-live");
+        assertThat(fast.await()).isTrue();
+        release.countDown();
+    }
+
+    private static final class RecordingSink implements ChatEventHub.Sink {
+
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        private RecordingSink(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(String event, Object payload) {
+            received.add(payload);
+            latch.countDown();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
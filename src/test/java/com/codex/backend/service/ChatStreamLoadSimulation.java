@@ -0,0 +1,165 @@
+package com.codex.backend.service;
+
+import com.codex.backend.config.StreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link ChatEventHub} 的本地压测：模拟数千条推送连接（其中一小部分是写阻塞的慢客户端），
+ * 多线程按目标速率发消息，输出扇出吞吐、投递延迟分位数、慢连接断开数与内存占用。
+ *
+ * <p>不经过 HTTP，只衡量发布/订阅与有界缓冲本身。运行方式：{@code mvn test-compile} 后以测试 classpath
+ * 执行本类的 main 方法，可选参数依次为连接数、消息数、慢连接比例、每秒消息数（0 表示不限速）。
+ * 类名不以 Test 结尾，不会随 {@code mvn test} 执行。
+ */
+public final class ChatStreamLoadSimulation {
+
+    /** 慢客户端每次写阻塞的时长，模拟 socket 发送缓冲已满。 */
+    private static final long SLOW_SEND_MILLIS = 500;
+    private static final int PUBLISHERS = 8;
+
+    private ChatStreamLoadSimulation() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        double slowRatio = args.length > 2 ? Double.parseDouble(args[2]) : 0.01;
+        int ratePerSecond = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+
+        StreamProperties properties = new StreamProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatEventHub hub = new ChatEventHub(properties, meterRegistry);
+
+        // 每个用户两条连接（手机 + 平板），与单用户连接上限无冲突。
+        int users = Math.max(2, connections / 2);
+        UUID[] userIds = new UUID[users];
+        Arrays.setAll(userIds, i -> UUID.randomUUID());
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder received = new LongAdder();
+        AtomicInteger slowConnections = new AtomicInteger();
+        List<ChatEventHub.Subscription> subscriptions = new ArrayList<>();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        for (int i = 0; i < connections; i++) {
+            boolean slow = ThreadLocalRandom.current().nextDouble() < slowRatio;
+            if (slow) {
+                slowConnections.incrementAndGet();
+            }
+            subscriptions.add(hub.subscribe(userIds[i % users], new ChatEventHub.Sink() {
+                @Override
+                public void send(String event, Object payload) {
+                    if (slow) {
+                        sleep(SLOW_SEND_MILLIS);
+                    }
+                    if (payload instanceof Long publishedAt) {
+                        latency.record(System.nanoTime() - publishedAt);
+                        received.increment();
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            }));
+        }
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        ExecutorService publishers = Executors.newFixedThreadPool(PUBLISHERS);
+        long start = System.nanoTime();
+        for (int p = 0; p < PUBLISHERS; p++) {
+            int share = messages / PUBLISHERS;
+            publishers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long intervalNanos = ratePerSecond > 0 ? 1_000_000_000L * PUBLISHERS / ratePerSecond : 0;
+                long next = System.nanoTime();
+                for (int m = 0; m < share; m++) {
+                    if (intervalNanos > 0) {
+                        next += intervalNanos;
+                        long wait = next - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    // 一条站内信推给买卖双方。
+                    UUID buyer = userIds[random.nextInt(users)];
+                    UUID seller = userIds[random.nextInt(users)];
+                    hub.publish(List.of(buyer, seller), "message", System.nanoTime());
+                }
+            });
+        }
+        publishers.shutdown();
+        publishers.awaitTermination(5, TimeUnit.MINUTES);
+        long publishNanos = System.nanoTime() - start;
+        // 等待快连接的缓冲排空。
+        long previous = -1;
+        while (received.sum() != previous) {
+            previous = received.sum();
+            sleep(200);
+        }
+        long totalNanos = System.nanoTime() - start;
+
+        long dropped = (long) meterRegistry.counter("chat.stream.dropped").count();
+        long closed = subscriptions.stream().filter(ChatEventHub.Subscription::isClosed).count();
+        System.out.printf("connections=%d users=%d slow=%d messages=%d rate=%s%n",
+                connections, users, slowConnections.get(), messages,
+                ratePerSecond > 0 ? ratePerSecond + "/s" : "unbounded");
+        System.out.printf("publish: %.0f msg/s, deliveries=%d (%.0f/s)%n",
+                messages / (publishNanos / 1e9), received.sum(), received.sum() / (totalNanos / 1e9));
+        System.out.printf("latency: p50=%.2fms p99=%.2fms p999=%.2fms%n",
+                latency.percentile(0.50) / 1e6, latency.percentile(0.99) / 1e6, latency.percentile(0.999) / 1e6);
+        System.out.printf("slow consumers dropped=%d, closed connections=%d, open=%d%n",
+                dropped, closed, hub.connectionCount());
+        System.out.printf("peak sender threads=%d%n", hub.peakSenderThreads());
+        System.out.printf("heap for subscriptions: ~%d KB%n", Math.max(0, heapAfter - heapBefore) / 1024);
+        hub.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 以 2 的幂为桶的无锁延迟直方图，记录纳秒。
+     */
+    private static final class LatencyHistogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        void record(long nanos) {
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+        }
+
+        double percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && total > 0) {
+                    return 1L << (i + 1);
+                }
+            }
+            return 0;
+        }
+    }
+}
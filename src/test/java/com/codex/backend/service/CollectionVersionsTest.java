@@ -0,0 +1,73 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.favorite.Favorite;
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.FavoriteRepository;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 集合 ETag 只随本集合展示的用户资料变化。
+ */
+@SpringBootTest
+class CollectionVersionsTest {
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private User viewer;
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        viewer = userRepository.save(new User("viewer-" + UUID.randomUUID() + "@codex.com", "hash", "Viewer"));
+        seller = userRepository.save(new User("seller-" + UUID.randomUUID() + "@codex.com", "hash", "Seller"));
+        Listing listing = listingRepository.save(new Listing(
+                "Board", "ETag fixture", ListingCondition.GOOD, BigDecimal.TEN, "London",
+                TradeOption.COURIER, false, null, seller));
+        favoriteRepository.save(new Favorite(viewer, listing));
+    }
+
+    @Test
+    void unrelatedProfileChangeKeepsFavoritesEtag() throws InterruptedException {
+        User stranger = userRepository.save(new User("stranger-" + UUID.randomUUID() + "@codex.com", "hash", "Stranger"));
+        String before = collectionVersions.favorites(viewer);
+
+        Thread.sleep(5);
+        stranger.updateProfile("Stranger renamed", "Leeds", null, 4.5, 1);
+        userRepository.save(stranger);
+
+        assertThat(collectionVersions.favorites(viewer)).isEqualTo(before);
+    }
+
+    @Test
+    void sellerProfileChangeRefreshesFavoritesEtag() throws InterruptedException {
+        String before = collectionVersions.favorites(viewer);
+
+        Thread.sleep(5);
+        seller.updateProfile("Seller renamed", "Leeds", null, 4.5, 1);
+        userRepository.save(seller);
+
+        assertThat(collectionVersions.favorites(viewer)).isNotEqualTo(before);
+    }
+}
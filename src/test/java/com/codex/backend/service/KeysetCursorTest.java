@@ -0,0 +1,31 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-05-20T10:00:00.123456Z"), UUID.randomUUID());
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("%%%"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
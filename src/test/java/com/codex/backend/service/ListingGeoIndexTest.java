@@ -0,0 +1,78 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.projection.ListingGeoView;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ListingGeoIndexTest {
+
+    private final ListingGeoIndex index = new ListingGeoIndex(mock(ListingRepository.class));
+
+    @Test
+    void returnsNearestFirstWithinRadiusAndPages() {
+        UUID village = add(50.1163, -122.9574);
+        UUID creekside = add(50.0950, -122.9890);
+        UUID squamish = add(49.7016, -123.1558);
+        add(49.2827, -123.1207);
+
+        List<ListingGeoIndex.GeoHit> first = index.near(50.1163, -122.9574, 60, null, 2);
+        assertThat(first).extracting(ListingGeoIndex.GeoHit::id).containsExactly(village, creekside);
+
+        ListingGeoIndex.GeoHit last = first.get(1);
+        List<ListingGeoIndex.GeoHit> next =
+                index.near(50.1163, -122.9574, 60, new DistanceCursor(last.distanceKm(), last.id()), 2);
+        assertThat(next).extracting(ListingGeoIndex.GeoHit::id).containsExactly(squamish);
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        UUID east = add(-17.0, 179.98);
+        UUID west = add(-17.0, -179.98);
+
+        assertThat(index.near(-17.0, 179.99, 10, null, 10))
+                .extracting(ListingGeoIndex.GeoHit::id)
+                .containsExactly(east, west);
+    }
+
+    @Test
+    void deepPagesOfDenseAreaMatchFullOrdering() {
+        Random random = new Random(7);
+        List<ListingGeoIndex.GeoHit> expected = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            double latitude = 46.0207 + random.nextGaussian() * 0.3;
+            double longitude = 7.7491 + random.nextGaussian() * 0.3;
+            UUID id = add(latitude, longitude);
+            double distance = ListingGeoIndex.distanceKm(46.0207, 7.7491, latitude, longitude);
+            if (distance <= 50) {
+                expected.add(new ListingGeoIndex.GeoHit(id, distance));
+            }
+        }
+        expected.sort(Comparator.comparingDouble(ListingGeoIndex.GeoHit::distanceKm)
+                .thenComparing(ListingGeoIndex.GeoHit::id));
+
+        // 后面的页从游标所在的圈开始扫描，拼起来仍与整体排序一致，不重不漏。
+        List<ListingGeoIndex.GeoHit> paged = new ArrayList<>();
+        DistanceCursor cursor = null;
+        List<ListingGeoIndex.GeoHit> page;
+        while (!(page = index.near(46.0207, 7.7491, 50, cursor, 25)).isEmpty()) {
+            paged.addAll(page);
+            ListingGeoIndex.GeoHit last = page.get(page.size() - 1);
+            cursor = new DistanceCursor(last.distanceKm(), last.id());
+        }
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    private UUID add(double latitude, double longitude) {
+        UUID id = UUID.randomUUID();
+        index.add(new ListingGeoView(id, latitude, longitude));
+        return id;
+    }
+}
@@ -0,0 +1,198 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.web.dto.ListingImportResponse;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 批量导入：校验逐行错误的处理，并在 JDBC 层确认 listings 的 INSERT 以批量方式执行。
+ */
+@SpringBootTest(properties = "listing-import.batch-size=100")
+class ListingImportServiceTest {
+
+    private static final String HEADER = "title,description,condition,price,location,trade_option,image_url\n";
+
+    @Autowired
+    private ListingImportService importService;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingInsertCounter insertCounter;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = userRepository.save(new User("import-" + UUID.randomUUID() + "@codex.com", "hash", "Board Shop"));
+        insertCounter.reset();
+    }
+
+    @Test
+    void csvImportWritesListingsInJdbcBatches() {
+        StringBuilder csv = new StringBuilder("\uFEFF").append(HEADER);
+        for (int i = 0; i < 120; i++) {
+            csv.append("Board ").append(i).append(",\"Waxed, tuned\nready to ride\",good,199.5,London,courier,\n");
+        }
+        csv.append("Broken,Unknown condition,mint,100,London,courier,\n");
+        csv.append("Free board,No price,good,,London,courier,\n");
+        long before = listingRepository.count();
+
+        ListingImportResponse response = importService.importCsv(seller, stream(csv.toString()));
+
+        assertThat(response.imported()).isEqualTo(120);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.completed()).isTrue();
+        assertThat(response.errors())
+                .extracting(ListingImportResponse.RowError::row)
+                .containsExactly(121L, 122L);
+        assertThat(response.errors().get(0).message()).isEqualTo("Invalid condition value");
+        assertThat(response.errors().get(1).message()).startsWith("price:");
+        assertThat(listingRepository.count()).isEqualTo(before + 120);
+        assertThat(listingRepository.findAll())
+                .filteredOn(listing -> listing.getTitle().equals("Board 7"))
+                .singleElement()
+                .satisfies(listing -> assertThat(listing.getDescription()).isEqualTo("Waxed, tuned\nready to ride"));
+
+        // 两个事务（100 + 20 行），jdbc.batch_size=50 时共 3 次 executeBatch，没有逐行 executeUpdate。
+        assertThat(insertCounter.rows.get()).isEqualTo(120);
+        assertThat(insertCounter.batches.get()).isEqualTo(3);
+        assertThat(insertCounter.singleUpdates.get()).isZero();
+    }
+
+    @Test
+    void jsonImportSkipsInvalidRowsAndKeepsRowsBeforeMalformedInput() {
+        String json = """
+                [
+                  {"title": "Jones Flagship", "description": "Freeride", "condition": "like_new", "price": 520,
+                   "location": "Innsbruck", "trade_option": "face_to_face", "latitude": 47.26, "longitude": 11.39},
+                  {"title": "Bad price", "description": "Typo", "condition": "good", "price": "abc",
+                   "location": "London", "trade_option": "courier"},
+                  {"title": "Lib Tech Orca", "description": "Powder", "condition": "good", "price": 410,
+                   "location": "Zurich", "trade_option": "courier"},
+                  {"title": "Truncated"
+                """;
+
+        ListingImportResponse response = importService.importJson(seller, stream(json));
+
+        assertThat(response.imported()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(1);
+        assertThat(response.completed()).isFalse();
+        assertThat(response.errors()).hasSize(2);
+        assertThat(response.errors().get(0)).isEqualTo(new ListingImportResponse.RowError(2, "Invalid price value"));
+        assertThat(response.errors().get(1).message()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected() {
+        assertThatThrownBy(() -> importService.importCsv(seller, stream("title,price\nBoard,10\n")))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("description");
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 给数据源包一层代理，统计 listings INSERT 的 addBatch / executeBatch / executeUpdate 次数。
+     */
+    static final class ListingInsertCounter implements BeanPostProcessor {
+
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger singleUpdates = new AtomicInteger();
+
+        void reset() {
+            rows.set(0);
+            batches.set(0);
+            singleUpdates.set(0);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrapConnection(connection) : result);
+        }
+
+        private Connection wrapConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (method.getName().equals("prepareStatement")
+                        && args[0] instanceof String sql
+                        && sql.toLowerCase(Locale.ROOT).startsWith("insert into listings")) {
+                    return wrapInsert((PreparedStatement) result);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrapInsert(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                switch (method.getName()) {
+                    case "addBatch" -> rows.incrementAndGet();
+                    case "executeBatch" -> batches.incrementAndGet();
+                    case "executeUpdate", "execute" -> singleUpdates.incrementAndGet();
+                    default -> {
+                    }
+                }
+                return result;
+            });
+        }
+
+        private interface ResultMapper {
+            Object map(Method method, Object[] args, Object result);
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                try {
+                    return mapper.map(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+        }
+    }
+
+    @TestConfiguration
+    static class InsertCounterConfiguration {
+
+        @Bean
+        static ListingInsertCounter listingInsertCounter() {
+            return new ListingInsertCounter();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.projection.ListingSearchView;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListingSearchIndexTest {
+
+    private final UUID burton = UUID.randomUUID();
+    private final UUID salomon = UUID.randomUUID();
+    private final UUID jacket = UUID.randomUUID();
+    private ListingSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ListingSearchIndex(mock(ListingRepository.class));
+        Instant now = Instant.now();
+        index.add(new ListingSearchView(burton, "Burton Custom 单板", "九成新滑雪板，附固定器", "Whistler", now));
+        index.add(new ListingSearchView(salomon, "Salomon Assassin", "适合公园的单板", "Banff", now.minusSeconds(60)));
+        index.add(new ListingSearchView(jacket, "滑雪服", "防水外套", "Whistler", now.minusSeconds(120)));
+    }
+
+    @Test
+    void matchesChineseAndLatinTerms() {
+        assertThat(index.search("单板", 0, 10).ids()).containsExactly(burton, salomon);
+        assertThat(index.search("滑雪", 0, 10).ids()).containsExactlyInAnyOrder(burton, jacket);
+        assertThat(index.search("SALOMON", 0, 10).ids()).containsExactly(salomon);
+        assertThat(index.search("snowmobile", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndPaginates() {
+        ListingSearchIndex.SearchHits first = index.search("whistler 单板", 0, 1);
+        assertThat(first.ids()).containsExactly(burton);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(index.search("whistler 单板", 2, 1).hasMore()).isFalse();
+    }
+
+    @Test
+    void replacesDocumentWhenReindexed() {
+        index.add(new ListingSearchView(salomon, "Salomon Huck Knife", "全山型", "Banff", Instant.now()));
+        assertThat(index.search("assassin", 0, 10).ids()).isEmpty();
+        assertThat(index.search("knife", 0, 10).ids()).containsExactly(salomon);
+    }
+}
@@ -0,0 +1,155 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.MessageRepository;
+import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.web.dto.message.CreateMessageThreadRequest;
+import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.message.MessageThreadSummaryResponse;
+import com.codex.backend.web.dto.message.SendMessageRequest;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 会话创建、已读标记与收件箱摘要：并发的第一条消息复用同一会话，并发写入不互相覆盖，重复查看不写库，
+ * 同一时间戳的消息不导致会话重复。
+ */
+@SpringBootTest
+class MessageServiceTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private MessageThreadRepository messageThreadRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User buyer;
+    private User seller;
+    private MessageThread thread;
+
+    @BeforeEach
+    void setUp() {
+        buyer = userRepository.save(new User("buyer-" + UUID.randomUUID() + "@codex.com", "hash", "Buyer"));
+        seller = userRepository.save(new User("seller-" + UUID.randomUUID() + "@codex.com", "hash", "Seller"));
+        Listing listing = listingRepository.save(new Listing(
+                "Board", "Read marker fixture", ListingCondition.GOOD, BigDecimal.TEN, "London",
+                TradeOption.COURIER, false, null, seller));
+        thread = messageThreadRepository.save(new MessageThread(listing, seller, buyer, listing.getTitle()));
+        messageRepository.save(new Message(thread, buyer, "Still available?"));
+    }
+
+    @Test
+    void sendingMessageKeepsCounterpartyReadMarkerWrittenConcurrently() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Instant sellerReadAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        outer.executeWithoutResult(status -> {
+            // 买家的请求先加载会话（卖家已读时间为空），随后卖家的查看请求提交了已读时间。
+            messageThreadRepository.findById(thread.getId()).orElseThrow();
+            concurrent.executeWithoutResult(
+                    inner -> messageThreadRepository.markReadBySeller(thread.getId(), sellerReadAt));
+            messageService.sendMessage(buyer, thread.getId(), new SendMessageRequest("Can you ship it?"));
+        });
+
+        MessageThread reloaded = messageThreadRepository.findById(thread.getId()).orElseThrow();
+        assertThat(reloaded.getSellerLastReadAt()).isEqualTo(sellerReadAt);
+        assertThat(reloaded.getBuyerLastReadAt()).isNotNull();
+    }
+
+    @Test
+    void viewingReadThreadAgainDoesNotMoveReadMarker() {
+        messageService.getThread(seller, thread.getId());
+        Instant firstReadAt = messageThreadRepository.findById(thread.getId()).orElseThrow().getSellerLastReadAt();
+
+        messageService.getThread(seller, thread.getId());
+        messageService.getThreadPage(seller, thread.getId(), null, null, 20);
+
+        assertThat(firstReadAt).isNotNull();
+        assertThat(messageThreadRepository.findById(thread.getId()).orElseThrow().getSellerLastReadAt())
+                .isEqualTo(firstReadAt);
+    }
+
+    @Test
+    void summaryListsThreadOnceWhenLastMessagesShareTimestamp() {
+        Message reply = messageRepository.save(new Message(thread, seller, "Yes"));
+        Instant tied = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("update Message m set m.createdAt = :tied where m.thread = :thread")
+                .setParameter("tied", tied)
+                .setParameter("thread", thread)
+                .executeUpdate());
+
+        // 两条消息时间相同，按 (created_at, id) 取 id 更大（后生成）的回复。
+        assertThat(messageService.listThreadSummaries(buyer))
+                .filteredOn(summary -> summary.threadId().equals(thread.getId().toString()))
+                .singleElement()
+                .extracting(MessageThreadSummaryResponse::lastMessage)
+                .satisfies(last -> assertThat(last.messageId()).isEqualTo(reply.getId().toString()));
+    }
+
+    @Test
+    void concurrentFirstMessagesShareOneThread() throws Exception {
+        User newBuyer = userRepository.save(new User("buyer-" + UUID.randomUUID() + "@codex.com", "hash", "Buyer"));
+        Listing listing = listingRepository.save(new Listing(
+                "Second board", "Concurrent thread fixture", ListingCondition.GOOD, BigDecimal.TEN, "London",
+                TradeOption.COURIER, false, null, seller));
+        CreateMessageThreadRequest request = new CreateMessageThreadRequest(listing.getId().toString(), "Hi");
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<MessageThreadResponse> send = () -> {
+            start.await();
+            return messageService.createThread(newBuyer, request);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<MessageThreadResponse>> results = List.of(executor.submit(send), executor.submit(send));
+            start.countDown();
+            assertThat(results.get(0).get().threadId()).isEqualTo(results.get(1).get().threadId());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(messageThreadRepository.findByListingAndBuyerAndSeller(listing, newBuyer, seller)).isPresent();
+    }
+}
@@ -0,0 +1,184 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.favorite.Favorite;
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.trip.Trip;
+import com.codex.backend.domain.trip.TripMessage;
+import com.codex.backend.domain.trip.TripParticipant;
+import com.codex.backend.domain.trip.TripParticipantRole;
+import com.codex.backend.domain.trip.TripStatus;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.FavoriteRepository;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.MessageRepository;
+import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.repository.TripMessageRepository;
+import com.codex.backend.repository.TripParticipantRepository;
+import com.codex.backend.repository.TripRepository;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.web.dto.ListingFeedQuery;
+import com.codex.backend.web.dto.trip.TripResponse;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 通过 Hibernate 统计信息校验列表类响应的 SQL 条数与卖家数量无关。
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ResponseQueryCountTest {
+
+    private static final int SELLER_COUNT = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private MessageThreadRepository messageThreadRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TripParticipantRepository tripParticipantRepository;
+
+    @Autowired
+    private TripMessageRepository tripMessageRepository;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User buyer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        buyer = userRepository.save(new User(uniqueEmail("buyer"), "hash", "Query Counter"));
+        for (int i = 0; i < SELLER_COUNT; i++) {
+            User seller = userRepository.save(new User(uniqueEmail("seller"), "hash", "Seller " + i));
+            Listing listing = listingRepository.save(new Listing(
+                    "Board " + i,
+                    "Query count fixture",
+                    ListingCondition.GOOD,
+                    BigDecimal.TEN,
+                    "London",
+                    TradeOption.COURIER,
+                    false,
+                    null,
+                    seller));
+            favoriteRepository.save(new Favorite(buyer, listing));
+            MessageThread thread = messageThreadRepository.save(
+                    new MessageThread(listing, seller, buyer, listing.getTitle()));
+            messageRepository.save(new Message(thread, buyer, "Still available?"));
+            messageRepository.save(new Message(thread, seller, "Yes"));
+
+            Instant start = Instant.now().plus(i + 1, ChronoUnit.DAYS);
+            Trip trip = tripRepository.save(new Trip(
+                    "Trip " + i, "Zermatt", "Query count fixture", start, start.plus(1, ChronoUnit.DAYS),
+                    TripStatus.UPCOMING, seller));
+            tripParticipantRepository.save(new TripParticipant(trip, seller, TripParticipantRole.ORGANIZER));
+            tripParticipantRepository.save(new TripParticipant(trip, buyer, TripParticipantRole.MEMBER));
+            tripMessageRepository.save(new TripMessage(trip, seller, "Welcome"));
+            tripMessageRepository.save(new TripMessage(trip, buyer, "Thanks"));
+        }
+        statistics.clear();
+    }
+
+    @Test
+    void listingFeedLoadsSellersWithoutExtraQueries() {
+        assertThat(listingService.fetchAll(buyer)).hasSizeGreaterThanOrEqualTo(SELLER_COUNT);
+        // listings + favorites
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void listingPageLoadsSellersWithoutExtraQueries() {
+        listingService.fetchPage(buyer, new ListingFeedQuery(null, null, null, null, null, null, 50));
+        // listings page + favorite id cache load
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void warmFavoriteCacheSkipsFavoritesTable() {
+        listingService.fetchAll(buyer);
+        statistics.clear();
+        listingService.fetchAll(buyer);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void favoriteListUsesSingleQuery() {
+        assertThat(favoriteService.list(buyer)).hasSize(SELLER_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void threadListDoesNotQueryPerThread() {
+        assertThat(messageService.listThreads(buyer)).hasSize(SELLER_COUNT);
+        // threads as buyer + threads as seller (each with listing/participants/messages) + favorite id cache load
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void threadSummariesUseOneAggregateQuery() {
+        assertThat(messageService.listThreadSummaries(buyer))
+                .hasSize(SELLER_COUNT)
+                .allSatisfy(summary -> {
+                    assertThat(summary.lastMessage()).isNotNull();
+                    assertThat(summary.unreadCount()).isEqualTo(1);
+                });
+        // buyer and seller sides in one union all query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tripListUsesFixedNumberOfQueries() {
+        List<TripResponse> trips = tripService.listTrips(new TripTimelineQuery(null, null, null, null, null, 0));
+        assertThat(trips).hasSizeGreaterThanOrEqualTo(SELLER_COUNT);
+        // trips, then participants + pending requests + messages per chunk
+        int chunks = (trips.size() + EntityStreams.CHUNK_SIZE - 1) / EntityStreams.CHUNK_SIZE;
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 3L * chunks);
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@codex.com";
+    }
+}
@@ -0,0 +1,187 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.listing.Listing;
+import com.codex.backend.domain.listing.ListingCondition;
+import com.codex.backend.domain.listing.TradeOption;
+import com.codex.backend.domain.message.Message;
+import com.codex.backend.domain.message.MessageThread;
+import com.codex.backend.domain.trip.Trip;
+import com.codex.backend.domain.trip.TripMessage;
+import com.codex.backend.domain.trip.TripParticipant;
+import com.codex.backend.domain.trip.TripParticipantRole;
+import com.codex.backend.domain.trip.TripStatus;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.ListingRepository;
+import com.codex.backend.repository.MessageRepository;
+import com.codex.backend.repository.MessageThreadRepository;
+import com.codex.backend.repository.TripMessageRepository;
+import com.codex.backend.repository.TripParticipantRepository;
+import com.codex.backend.repository.TripRepository;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.web.JsonArrayStreamer;
+import com.codex.backend.web.dto.ListingResponse;
+import com.codex.backend.web.dto.message.MessageThreadResponse;
+import com.codex.backend.web.dto.trip.TripResponse;
+import com.codex.backend.web.dto.trip.TripTimelineQuery;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 流式模式与全量列表的输出一致：数据量超过一个分块，覆盖分块边界与买家/卖家两侧的归并。
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamingResponseTest {
+
+    private static final int FIXTURE_SIZE = EntityStreams.CHUNK_SIZE + 30;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private MessageThreadRepository messageThreadRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TripParticipantRepository tripParticipantRepository;
+
+    @Autowired
+    private TripMessageRepository tripMessageRepository;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        user = userRepository.save(new User("stream-" + UUID.randomUUID() + "@codex.com", "hash", "Streamer"));
+        for (int i = 0; i < FIXTURE_SIZE; i++) {
+            User other = userRepository.save(
+                    new User("stream-" + UUID.randomUUID() + "@codex.com", "hash", "Rider " + i));
+            // 一半会话当前用户是买家，一半是卖家。
+            User seller = i % 2 == 0 ? other : user;
+            User buyer = i % 2 == 0 ? user : other;
+            Listing listing = listingRepository.save(new Listing(
+                    "Board " + i, "Streaming fixture", ListingCondition.GOOD, BigDecimal.TEN, "London",
+                    TradeOption.COURIER, false, null, seller));
+            MessageThread thread = messageThreadRepository.save(
+                    new MessageThread(listing, seller, buyer, listing.getTitle()));
+            messageRepository.save(new Message(thread, buyer, "Still available?"));
+
+            Instant start = Instant.now().plus(i + 1, ChronoUnit.DAYS);
+            Trip trip = tripRepository.save(new Trip(
+                    "Trip " + i, "Zermatt", "Streaming fixture", start, start.plus(1, ChronoUnit.DAYS),
+                    TripStatus.UPCOMING, other));
+            tripParticipantRepository.save(new TripParticipant(trip, other, TripParticipantRole.ORGANIZER));
+            tripMessageRepository.save(new TripMessage(trip, other, "Welcome"));
+        }
+    }
+
+    @Test
+    void listingStreamMatchesFullList() {
+        List<ListingResponse> streamed = new ArrayList<>();
+        listingService.streamAll(user, streamed::add);
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(listingService.fetchAll(user));
+    }
+
+    @Test
+    void threadStreamMergesBothRolesInListOrder() {
+        List<MessageThreadResponse> streamed = new ArrayList<>();
+        messageService.streamThreads(user, streamed::add);
+        assertThat(streamed).hasSize(FIXTURE_SIZE).containsExactlyElementsOf(messageService.listThreads(user));
+    }
+
+    @Test
+    void tripStreamMatchesTimeline() {
+        TripTimelineQuery query = new TripTimelineQuery(null, null, null, null, null, 0);
+        List<TripResponse> streamed = new ArrayList<>();
+        tripService.streamTrips(query, streamed::add);
+        assertThat(streamed).hasSizeGreaterThanOrEqualTo(FIXTURE_SIZE)
+                .containsExactlyElementsOf(tripService.listTrips(query));
+    }
+
+    @Test
+    void streamedJsonIsIdenticalToSerializedList() throws Exception {
+        TripTimelineQuery query = new TripTimelineQuery(null, null, null, null, null, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jsonArrayStreamer.write(request(null), response, sink -> tripService.streamTrips(query, sink));
+
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(tripService.listTrips(query)));
+    }
+
+    @Test
+    void emptyStreamWritesEmptyArray() throws Exception {
+        User stranger = userRepository.save(new User("stream-" + UUID.randomUUID() + "@codex.com", "hash", "Nobody"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jsonArrayStreamer.write(request(null), response, sink -> messageService.streamThreads(stranger, sink));
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void cborStreamDecodesToSameTrips() throws Exception {
+        TripTimelineQuery query = new TripTimelineQuery(null, null, null, null, null, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jsonArrayStreamer.write(request("application/json;q=0.5, application/cbor"), response,
+                sink -> tripService.streamTrips(query, sink));
+
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        // 用同一套配置（SNAKE_CASE、ISO 日期）解码，与全量列表逐项相同。
+        List<TripResponse> decoded = cborConverter.getObjectMapper()
+                .readValue(response.getContentAsByteArray(), new TypeReference<List<TripResponse>>() {});
+        assertThat(decoded).containsExactlyElementsOf(tripService.listTrips(query));
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return new ServletWebRequest(request);
+    }
+}
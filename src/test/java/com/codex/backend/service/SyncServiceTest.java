@@ -0,0 +1,112 @@
+package com.codex.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codex.backend.domain.sync.SyncEntityType;
+import com.codex.backend.domain.user.User;
+import com.codex.backend.repository.UserRepository;
+import com.codex.backend.web.dto.CreateListingRequest;
+import com.codex.backend.web.dto.ListingResponse;
+import com.codex.backend.web.dto.SyncResponse;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void returnsOnlyChangesAfterWatermark() {
+        User user = userRepository.save(new User("sync-" + UUID.randomUUID() + "@codex.com", "hash", "Sync Rider"));
+        SyncResponse initial = syncService.changesSince(user, null, null);
+        assertThat(initial.reset()).isTrue();
+
+        ListingResponse listing = listingService.create(user, new CreateListingRequest(
+                "Sync Board", "Delta sync fixture", "good", BigDecimal.TEN, "London", "courier",
+                false, null, null, null));
+        UUID listingId = UUID.fromString(listing.listingId());
+        favoriteService.add(user, listingId);
+        favoriteService.remove(user, listingId);
+
+        SyncResponse delta = syncService.changesSince(user, initial.nextSince(), null);
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.listings()).extracting(ListingResponse::listingId).contains(listing.listingId());
+        // 同一收藏先加后删，只保留最后一次变更。
+        assertThat(delta.favorites()).isEmpty();
+        assertThat(delta.deleted().favorites()).containsExactly(listing.listingId());
+
+        SyncResponse next = syncService.changesSince(user, delta.nextSince(), null);
+        assertThat(next.listings()).extracting(ListingResponse::listingId).doesNotContain(listing.listingId());
+        assertThat(next.deleted().favorites()).isEmpty();
+    }
+
+    @Test
+    void changeCommittedLateIsNotSkipped() throws Exception {
+        User user = userRepository.save(new User("sync-" + UUID.randomUUID() + "@codex.com", "hash", "Sync Rider"));
+        String since = syncService.changesSince(user, null, null).nextSince();
+        UUID slowTrip = UUID.randomUUID();
+        UUID fastTrip = UUID.randomUUID();
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SyncResponse held;
+        try {
+            // 先登记变更的事务迟迟不提交，之后的事务先提交。
+            Future<?> slow = executor.submit(() -> transactions.executeWithoutResult(status -> {
+                changeLog.upsert(SyncEntityType.TRIP, slowTrip);
+                appended.countDown();
+                awaitQuietly(release);
+            }));
+            appended.await();
+            transactions.executeWithoutResult(status -> changeLog.upsert(SyncEntityType.TRIP, fastTrip));
+
+            held = syncService.changesSince(user, since, null);
+            assertThat(held.deleted().trips()).contains(fastTrip.toString()).doesNotContain(slowTrip.toString());
+
+            release.countDown();
+            slow.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 晚提交的变更拿到更大的 seq，落在已返回的水位之后。
+        SyncResponse delta = syncService.changesSince(user, held.nextSince(), null);
+        assertThat(delta.deleted().trips()).contains(slowTrip.toString()).doesNotContain(fastTrip.toString());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.codex.backend.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * 列表接口的模式参数同时出现时唯一命中一个处理方法：`stream=true` 让位于分页、附近与摘要模式。
+ */
+@SpringBootTest
+class ListModeMappingTest {
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Test
+    void streamYieldsToOtherListModes() throws Exception {
+        assertThat(handlerFor("/api/listings", "stream", "true")).isEqualTo("stream");
+        assertThat(handlerFor("/api/listings", "stream", "true", "near", "me")).isEqualTo("near");
+        assertThat(handlerFor("/api/listings", "stream", "true", "limit", "20")).isEqualTo("page");
+        assertThat(handlerFor("/api/messages", "stream", "true", "view", "summary")).isEqualTo("summaries");
+        assertThat(handlerFor("/api/trips", "stream", "true", "limit", "20")).isEqualTo("page");
+    }
+
+    private String handlerFor(String path, String... params) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        HandlerExecutionChain chain = handlerMapping.getHandler(request);
+        return ((HandlerMethod) chain.getHandler()).getMethod().getName();
+    }
+}